@@ -3,6 +3,11 @@ plugins {
     alias(libs.plugins.google.services)
 }
 
+// Microbenchmarks in androidTest/.../benchmark run against the non-debuggable
+// "benchmark" build type: ./gradlew :app:connectedBenchmarkAndroidTest -Pbenchmark
+// JSON results land in app/build/outputs/connected_android_test_additional_output.
+val runBenchmarks = project.hasProperty("benchmark")
+
 android {
     namespace = "com.example.pawfect"
     compileSdk {
@@ -16,9 +21,15 @@ android {
         versionCode = 1
         versionName = "1.0"
 
-        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+        testInstrumentationRunner = if (runBenchmarks) {
+            "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+        } else {
+            "androidx.test.runner.AndroidJUnitRunner"
+        }
     }
 
+    testBuildType = if (runBenchmarks) "benchmark" else "debug"
+
     buildTypes {
         release {
             isMinifyEnabled = false
@@ -27,6 +38,12 @@ android {
                 "proguard-rules.pro"
             )
         }
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+            isDebuggable = false
+        }
     }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
@@ -49,10 +66,20 @@ dependencies {
     // ImageKit REST API (using OkHttp for HTTP requests)
     implementation("com.squareup.okhttp3:okhttp:4.12.0")
     
-    // Glide for image loading
+    // Glide for image loading, fetching through the app's shared OkHttpClient
     implementation(libs.glide)
+    implementation(libs.glide.okhttp3)
+    implementation(libs.glide.recyclerview)
+    annotationProcessor(libs.glide.compiler)
+    
+    // Background queue for photo uploads and pet saves
+    implementation(libs.work.runtime)
     
     testImplementation(libs.junit)
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
+    // Real org.json for JVM tests; android.jar only has stubs
+    testImplementation("org.json:json:20240303")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
+    androidTestImplementation(libs.benchmark.junit4)
 }
\ No newline at end of file
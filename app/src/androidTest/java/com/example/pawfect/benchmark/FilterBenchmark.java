@@ -0,0 +1,128 @@
+package com.example.pawfect.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetType;
+import com.example.pawfect.search.PetSearchIndex;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Search and type filtering as done by PetListActivity, over 1k to 100k pets. The
+ * *Linear cases are the baseline: the scan with lower-cased string compares that
+ * filterPets did before PetSearchIndex.
+ */
+@RunWith(Parameterized.class)
+public class FilterBenchmark {
+
+    @Parameterized.Parameters(name = "pets={0}")
+    public static Collection<Object[]> sizes() {
+        return Arrays.asList(new Object[][] {{1_000}, {10_000}, {100_000}});
+    }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int size;
+    private List<Pet> pets;
+    private PetSearchIndex index;
+
+    public FilterBenchmark(int size) {
+        this.size = size;
+    }
+
+    @Before
+    public void setUp() {
+        pets = SyntheticPets.generate(size);
+        index = new PetSearchIndex();
+        index.sync(pets);
+    }
+
+    @Test
+    public void buildIndex() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            new PetSearchIndex().sync(pets);
+        }
+    }
+
+    @Test
+    public void filterByType() {
+        List<Pet> out = new ArrayList<>(size);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            out.clear();
+            index.search(null, PetType.DOG, out);
+        }
+    }
+
+    @Test
+    public void searchPrefixWithType() {
+        List<Pet> out = new ArrayList<>(size);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            out.clear();
+            index.search("lab", PetType.DOG, out);
+        }
+    }
+
+    @Test
+    public void filterByTypeLinear() {
+        List<Pet> out = new ArrayList<>(size);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            out.clear();
+            filterLinear(null, "dog", out);
+        }
+    }
+
+    @Test
+    public void searchPrefixWithTypeLinear() {
+        List<Pet> out = new ArrayList<>(size);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            out.clear();
+            filterLinear("lab", "dog", out);
+        }
+    }
+
+    @Test
+    public void searchTwoTerms() {
+        List<Pet> out = new ArrayList<>(size);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            out.clear();
+            index.search("play gard", null, out);
+        }
+    }
+
+    /**
+     * The old PetListActivity.filterPets loop; type is the filter chip's label
+     */
+    private void filterLinear(String searchQuery, String type, List<Pet> out) {
+        for (Pet pet : pets) {
+            boolean matchesFilter = type == null
+                    || pet.getTypeLabel() != null && pet.getTypeLabel().toLowerCase().equals(type.toLowerCase());
+
+            boolean matchesSearch = searchQuery == null || searchQuery.isEmpty()
+                    || (pet.getName() != null && pet.getName().toLowerCase().contains(searchQuery.toLowerCase()))
+                    || (pet.getDescription() != null && pet.getDescription().toLowerCase().contains(searchQuery.toLowerCase()))
+                    || (pet.getRace() != null && pet.getRace().toLowerCase().contains(searchQuery.toLowerCase()));
+
+            if (matchesFilter && matchesSearch) {
+                out.add(pet);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.pawfect.benchmark;
+
+import android.content.Context;
+import android.widget.FrameLayout;
+
+import androidx.appcompat.view.ContextThemeWrapper;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pawfect.R;
+import com.example.pawfect.adapter.PetAdapter;
+import com.example.pawfect.model.Pet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+/**
+ * Cost of PetAdapter.PetViewHolder.bind for a recycled card
+ */
+@RunWith(AndroidJUnit4.class)
+public class PetBindBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private PetAdapter.PetViewHolder holder;
+    private List<Pet> pets;
+
+    @Before
+    public void setUp() {
+        Context context = new ContextThemeWrapper(
+                InstrumentationRegistry.getInstrumentation().getTargetContext(), R.style.Theme_Pawfect);
+        PetAdapter adapter = new PetAdapter(null);
+        FrameLayout parent = new FrameLayout(context);
+        holder = adapter.onCreateViewHolder(parent, 0);
+        pets = SyntheticPets.generate(64);
+    }
+
+    @Test
+    @UiThreadTest
+    public void bind() {
+        BenchmarkState state = benchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            holder.bind(pets.get(i++ & 63));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.pawfect.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetCodec;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+/**
+ * Pet/Owner encoding with PetCodec against Java serialization
+ */
+@RunWith(AndroidJUnit4.class)
+public class PetCodecBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final Pet pet = SyntheticPets.pet(new Random(7), 1);
+
+    @Test
+    public void codecEncode() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            PetCodec.encode(pet);
+        }
+    }
+
+    @Test
+    public void codecDecode() throws Exception {
+        byte[] bytes = PetCodec.encode(pet);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            PetCodec.decode(bytes);
+        }
+    }
+
+    @Test
+    public void serializableEncode() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            serialize(pet);
+        }
+    }
+
+    @Test
+    public void serializableDecode() throws Exception {
+        byte[] bytes = serialize(pet);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                in.readObject();
+            }
+        }
+    }
+
+    private static byte[] serialize(Pet pet) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(pet);
+        }
+        return bytes.toByteArray();
+    }
+}
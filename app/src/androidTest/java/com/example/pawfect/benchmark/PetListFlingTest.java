@@ -0,0 +1,115 @@
+package com.example.pawfect.benchmark;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+import android.view.FrameMetrics;
+import android.view.View;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pawfect.PetListActivity;
+import com.example.pawfect.R;
+import com.example.pawfect.adapter.PetAdapter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Flings PetListActivity's list over synthetic pets and counts the frames that missed
+ * the display's frame deadline, as reported by FrameMetrics.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PetListFlingTest {
+
+    private static final String TAG = "PetListFlingTest";
+    private static final int PET_COUNT = 500;
+    private static final int FLINGS = 4;
+    private static final int FLING_VELOCITY = 12_000;
+    // Loose enough for emulators; the measured numbers are what matter
+    private static final double MAX_JANKY_RATIO = 0.2;
+
+    @Test
+    public void fling_dropsFewFrames() throws Exception {
+        try (ActivityScenario<PetListActivity> scenario = ActivityScenario.launch(PetListActivity.class)) {
+            AtomicReference<RecyclerView> list = new AtomicReference<>();
+            AtomicReference<Window> window = new AtomicReference<>();
+            AtomicLong frameDeadlineNs = new AtomicLong();
+            scenario.onActivity(activity -> {
+                // Otherwise the live query can replace the synthetic pets mid-fling
+                activity.stopUpdates();
+                RecyclerView recyclerView = activity.findViewById(R.id.recyclerView);
+                recyclerView.setVisibility(View.VISIBLE);
+                ((PetAdapter) recyclerView.getAdapter()).submitList(SyntheticPets.generate(PET_COUNT));
+                list.set(recyclerView);
+                window.set(activity.getWindow());
+                frameDeadlineNs.set((long) (TimeUnit.SECONDS.toNanos(1) / activity.getDisplay().getRefreshRate()));
+            });
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+
+            AtomicInteger frames = new AtomicInteger();
+            AtomicInteger jankyFrames = new AtomicInteger();
+            HandlerThread metricsThread = new HandlerThread("frame-metrics");
+            metricsThread.start();
+            Window.OnFrameMetricsAvailableListener metricsListener = (w, metrics, dropped) -> {
+                if (metrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) return;
+                frames.incrementAndGet();
+                if (metrics.getMetric(FrameMetrics.TOTAL_DURATION) > frameDeadlineNs.get()) {
+                    jankyFrames.incrementAndGet();
+                }
+            };
+            window.get().addOnFrameMetricsAvailableListener(metricsListener, new Handler(metricsThread.getLooper()));
+
+            try {
+                for (int i = 0; i < FLINGS; i++) {
+                    // Alternate direction so every fling has room to travel
+                    flingAndWait(list.get(), i % 2 == 0 ? FLING_VELOCITY : -FLING_VELOCITY / 2);
+                }
+            } finally {
+                InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                        window.get().removeOnFrameMetricsAvailableListener(metricsListener));
+                metricsThread.quitSafely();
+            }
+
+            double jankyRatio = frames.get() == 0 ? 0 : (double) jankyFrames.get() / frames.get();
+            Log.i(TAG, "frames=" + frames.get() + " janky=" + jankyFrames.get() + " ratio=" + jankyRatio);
+            Bundle results = new Bundle();
+            results.putInt("frames", frames.get());
+            results.putInt("jankyFrames", jankyFrames.get());
+            InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+
+            assertTrue("No frames were drawn during the fling", frames.get() > 0);
+            assertTrue("Janky frame ratio " + jankyRatio, jankyRatio <= MAX_JANKY_RATIO);
+        }
+    }
+
+    private static void flingAndWait(RecyclerView recyclerView, int velocityY) throws InterruptedException {
+        CountDownLatch idle = new CountDownLatch(1);
+        RecyclerView.OnScrollListener listener = new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView view, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE) idle.countDown();
+            }
+        };
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            recyclerView.addOnScrollListener(listener);
+            if (!recyclerView.fling(0, velocityY)) idle.countDown();
+        });
+        assertTrue("Fling did not settle", idle.await(10, TimeUnit.SECONDS));
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> recyclerView.removeOnScrollListener(listener));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.pawfect.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetMapper;
+import com.google.firebase.firestore.util.CustomClassMapper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decoding and encoding a 10k document snapshot with PetMapper against Firestore's
+ * reflective CustomClassMapper, which toObject() and set(pet) use. Pet is immutable and
+ * cannot be mapped reflectively, so the reflective side maps PetBean, a bean with the
+ * same fields. The documents are the field maps a DocumentSnapshot hands out; divide
+ * the reported time by DOCUMENTS for the cost per document.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PetMapperBenchmark {
+
+    private static final int DOCUMENTS = 10_000;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final List<Pet> pets = SyntheticPets.generate(DOCUMENTS);
+    private final List<Map<String, Object>> documents = documents(pets);
+    private final List<PetBean> beans = beans(documents);
+
+    @Test
+    public void mapperDecode() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 0; i < DOCUMENTS; i++) {
+                PetMapper.fromMap(pets.get(i).getId(), documents.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void customClassMapperDecode() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 0; i < DOCUMENTS; i++) {
+                CustomClassMapper.convertToCustomClass(documents.get(i), PetBean.class, null);
+            }
+        }
+    }
+
+    @Test
+    public void mapperEncode() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 0; i < DOCUMENTS; i++) {
+                PetMapper.toMap(pets.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void customClassMapperEncode() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 0; i < DOCUMENTS; i++) {
+                CustomClassMapper.convertToPlainJavaTypes(beans.get(i));
+            }
+        }
+    }
+
+    private static List<Map<String, Object>> documents(List<Pet> pets) {
+        List<Map<String, Object>> documents = new ArrayList<>(pets.size());
+        for (Pet pet : pets) {
+            documents.add(PetMapper.toMap(pet));
+        }
+        return documents;
+    }
+
+    private static List<PetBean> beans(List<Map<String, Object>> documents) {
+        List<PetBean> beans = new ArrayList<>(documents.size());
+        for (Map<String, Object> document : documents) {
+            beans.add(CustomClassMapper.convertToCustomClass(document, PetBean.class, null));
+        }
+        return beans;
+    }
+
+    /**
+     * The fields of a pet document as a bean the reflective mapper can fill in
+     */
+    public static class PetBean {
+        public String name;
+        public String description;
+        public String type;
+        public String typeKey;
+        public Integer ageMonths;
+        public String age;
+        public String race;
+        public String ownerId;
+        public List<String> photoUrls;
+        public long updatedAt;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.pawfect.benchmark;
+
+import com.example.pawfect.model.Owner;
+import com.example.pawfect.model.Pet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic pet datasets for the benchmarks
+ */
+final class SyntheticPets {
+
+    private static final String[] NAMES = {"Rex", "Milo", "Luna", "Bella", "Max", "Coco", "Rocky", "Nala", "Oscar", "Simba"};
+    private static final String[] TYPES = {"Dog", "Cat", "dog", "cat", "Rabbit"};
+    private static final String[] RACES = {"Labrador", "Siamese", "Beagle", "Persian", "Golden Retriever", "Maine Coon", "Mixed"};
+    private static final String[] WORDS = {"friendly", "playful", "calm", "loves", "walks", "sleeps", "garden", "children", "other", "pets", "vaccinated", "house", "trained"};
+
+    private SyntheticPets() {
+    }
+
+    static List<Pet> generate(int count) {
+        Random random = new Random(42);
+        List<Pet> pets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pets.add(pet(random, i));
+        }
+        return pets;
+    }
+
+    static Pet pet(Random random, int i) {
+        StringBuilder description = new StringBuilder();
+        for (int w = 0; w < 12; w++) {
+            description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return Pet.builder()
+                .id(String.format("pet%08d", i))
+                .name(NAMES[random.nextInt(NAMES.length)] + " " + i)
+                .description(description.toString().trim())
+                .type(TYPES[random.nextInt(TYPES.length)])
+                .ageMonths(1 + random.nextInt(180))
+                .race(RACES[random.nextInt(RACES.length)])
+                .owner(new Owner("Owner " + (i % 500), "owner" + (i % 500) + "@example.com", "+33 6 00 00 " + (i % 100)))
+                .photoUrls(Arrays.asList("https://ik.imagekit.io/plmaosmzg/pawfect_match/pets/pet_" + i + ".jpg"))
+                .updatedAt(1_700_000_000_000L + i)
+                .build();
+    }
+}
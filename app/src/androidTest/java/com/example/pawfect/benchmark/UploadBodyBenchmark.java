@@ -0,0 +1,59 @@
+package com.example.pawfect.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.pawfect.util.ImageKitHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okio.Buffer;
+
+/**
+ * Multipart body construction and serialization for an ImageKit upload
+ */
+@RunWith(AndroidJUnit4.class)
+public class UploadBodyBenchmark {
+
+    private static final int IMAGE_BYTES = 2 * 1024 * 1024;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final RequestBody fileBody;
+
+    public UploadBodyBenchmark() {
+        byte[] image = new byte[IMAGE_BYTES];
+        new Random(3).nextBytes(image);
+        fileBody = RequestBody.create(image, MediaType.parse("image/jpeg"));
+    }
+
+    @Test
+    public void buildBody() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            ImageKitHelper.buildUploadBody(fileBody, "pet_bench.jpg", "/pawfect_match/pets/");
+        }
+    }
+
+    @Test
+    public void buildAndWriteBody() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            MultipartBody body = ImageKitHelper.buildUploadBody(fileBody, "pet_bench.jpg", "/pawfect_match/pets/");
+            Buffer sink = new Buffer();
+            body.writeTo(sink);
+            state.pauseTiming();
+            sink.clear();
+            state.resumeTiming();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.pawfect;
 
-import android.app.ProgressDialog;
+import android.content.ClipData;
+import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
@@ -14,14 +15,22 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.pawfect.data.FirestoreConfig;
+import com.example.pawfect.data.OwnerCache;
+import com.example.pawfect.data.PetReader;
+import com.example.pawfect.data.PetStore;
+import com.example.pawfect.data.PetWriter;
 import com.example.pawfect.model.Owner;
 import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetAge;
+import com.example.pawfect.util.ImageKitUrl;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
-import com.example.pawfect.util.ImageKitHelper;
+import com.example.pawfect.work.PetSaveQueue;
 import com.google.firebase.firestore.FirebaseFirestore;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -34,9 +43,8 @@ public class AddPetActivity extends AppCompatActivity {
     private TextInputLayout petNameLayout, petTypeLayout, petAgeLayout, petRaceLayout;
     private MaterialButton addPictureButton, submitButton;
     private ImageView petImageView;
-    private Uri selectedImageUri;
+    private final List<Uri> selectedImageUris = new ArrayList<>();
     private FirebaseFirestore db;
-    private ProgressDialog progressDialog;
     private Pet existingPet;
     private String petId;
     private boolean isEditMode = false;
@@ -47,8 +55,8 @@ public class AddPetActivity extends AppCompatActivity {
         setContentView(R.layout.activity_add_pet);
 
         // Check if we're in edit mode
-        petId = getIntent().getStringExtra("petId");
-        existingPet = (Pet) getIntent().getSerializableExtra("pet");
+        petId = getIntent().getStringExtra(PetStore.EXTRA_PET_ID);
+        existingPet = PetStore.fromIntent(getIntent());
         
         if (petId != null && existingPet != null) {
             isEditMode = true;
@@ -62,9 +70,42 @@ public class AddPetActivity extends AppCompatActivity {
         
         if (isEditMode) {
             populateFields();
+            loadFullPet();
         }
     }
 
+    /**
+     * The list hands over a summary, but an edit has to start from the full pet, so
+     * saving waits until it is loaded
+     */
+    private void loadFullPet() {
+        submitButton.setEnabled(false);
+        String shownDescription = existingPet.getDescription() != null ? existingPet.getDescription() : "";
+        PetReader.get(db, petId)
+                .addOnSuccessListener(this, fullPet -> {
+                    if (fullPet == null) {
+                        Toast.makeText(this, R.string.error, Toast.LENGTH_SHORT).show();
+                        finish();
+                        return;
+                    }
+                    existingPet = fullPet;
+                    PetStore.put(fullPet);
+                    // A summary has a shortened description and no owner; fill them in unless already edited
+                    if (petDescriptionEdit.getText().toString().equals(shownDescription)) {
+                        petDescriptionEdit.setText(fullPet.getDescription());
+                    }
+                    if (ownerEmailEdit.getText().toString().isEmpty() && ownerNameEdit.getText().toString().isEmpty()) {
+                        populateOwner(fullPet.getOwner());
+                    }
+                    submitButton.setEnabled(true);
+                })
+                .addOnFailureListener(this, e -> {
+                    Log.e("AddPetActivity", "Could not load pet", e);
+                    Toast.makeText(this, R.string.error, Toast.LENGTH_SHORT).show();
+                    finish();
+                });
+    }
+
     private void initializeViews() {
         // Owner fields
         ownerNameEdit = findViewById(R.id.ownerNameEdit);
@@ -89,10 +130,7 @@ public class AddPetActivity extends AppCompatActivity {
         submitButton = findViewById(R.id.submitButton);
         petImageView = findViewById(R.id.petImageView);
 
-        db = FirebaseFirestore.getInstance();
-        progressDialog = new ProgressDialog(this);
-        progressDialog.setMessage(getString(R.string.saving));
-        progressDialog.setCancelable(false);
+        db = FirestoreConfig.get();
     }
 
     private void setupClickListeners() {
@@ -100,19 +138,7 @@ public class AddPetActivity extends AppCompatActivity {
 
         submitButton.setOnClickListener(v -> {
             if (validateForm()) {
-                if (selectedImageUri != null) {
-                    // New image selected, upload it
-                    uploadImageAndSavePet();
-                } else {
-                    // No new image, save with existing or empty photo URLs
-                    if (isEditMode) {
-                        progressDialog.setMessage(getString(R.string.updating));
-                    } else {
-                        progressDialog.setMessage(getString(R.string.saving));
-                    }
-                    progressDialog.show();
-                    savePet(null);
-                }
+                savePet();
             }
         });
     }
@@ -122,6 +148,7 @@ public class AddPetActivity extends AppCompatActivity {
         Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
         intent.addCategory(Intent.CATEGORY_OPENABLE);
         intent.setType("image/*");
+        intent.putExtra(Intent.EXTRA_ALLOW_MULTIPLE, true);
         intent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
         intent.addFlags(Intent.FLAG_GRANT_PERSISTABLE_URI_PERMISSION);
         startActivityForResult(intent, 100);
@@ -131,20 +158,36 @@ public class AddPetActivity extends AppCompatActivity {
     protected void onActivityResult(int requestCode, int resultCode, Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
         if (requestCode == 100 && resultCode == RESULT_OK && data != null) {
-            selectedImageUri = data.getData();
-            if (selectedImageUri != null) {
+            // Several images come back as ClipData, a single one as the data URI
+            List<Uri> picked = new ArrayList<>();
+            ClipData clipData = data.getClipData();
+            if (clipData != null) {
+                for (int i = 0; i < clipData.getItemCount(); i++) {
+                    picked.add(clipData.getItemAt(i).getUri());
+                }
+            } else if (data.getData() != null) {
+                picked.add(data.getData());
+            }
+            if (picked.isEmpty()) return;
+
+            for (Uri uri : picked) {
                 // Try to grant persistent read permission (optional - will work without it too)
                 try {
-                    getContentResolver().takePersistableUriPermission(selectedImageUri, 
+                    getContentResolver().takePersistableUriPermission(uri, 
                         Intent.FLAG_GRANT_READ_URI_PERMISSION);
                 } catch (SecurityException e) {
                     // Permission not persistable, but that's okay - we'll use it immediately
                     Log.d("AddPetActivity", "Persistable permission not available, will use URI immediately");
                 }
-                petImageView.setImageURI(selectedImageUri);
-                petImageView.setVisibility(View.VISIBLE);
-                addPictureButton.setText(getString(R.string.change_picture));
             }
+            selectedImageUris.clear();
+            selectedImageUris.addAll(picked);
+
+            petImageView.setImageURI(picked.get(0));
+            petImageView.setVisibility(View.VISIBLE);
+            addPictureButton.setText(picked.size() > 1
+                    ? getString(R.string.change_pictures, picked.size())
+                    : getString(R.string.change_picture));
         }
     }
 
@@ -195,6 +238,9 @@ public class AddPetActivity extends AppCompatActivity {
         if (TextUtils.isEmpty(petAgeEdit.getText())) {
             petAgeLayout.setError(getString(R.string.required_field));
             isValid = false;
+        } else if (PetAge.parse(petAgeEdit.getText().toString()) == PetAge.UNKNOWN) {
+            petAgeLayout.setError(getString(R.string.invalid_age));
+            isValid = false;
         } else {
             petAgeLayout.setError(null);
         }
@@ -209,68 +255,17 @@ public class AddPetActivity extends AppCompatActivity {
         return isValid;
     }
 
-    private void uploadImageAndSavePet() {
-        if (selectedImageUri == null) {
-            Toast.makeText(this, "No image selected", Toast.LENGTH_SHORT).show();
-            return;
-        }
-
-        progressDialog.show();
-        progressDialog.setMessage(getString(R.string.uploading));
-
-        // Verify we can read the URI
-        try {
-            getContentResolver().openInputStream(selectedImageUri).close();
-        } catch (Exception e) {
-            progressDialog.dismiss();
-            Log.e("AddPetActivity", "Cannot read image URI", e);
-            Toast.makeText(this, "Cannot access image. Please try selecting again.", Toast.LENGTH_LONG).show();
-            return;
-        }
-
-        // Upload to ImageKit
-        ImageKitHelper.uploadImage(this, selectedImageUri, new ImageKitHelper.UploadCallback() {
-            @Override
-            public void onSuccess(String imageUrl) {
-                runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        progressDialog.setMessage(getString(R.string.saving));
-                        List<String> photoUrls = new ArrayList<>();
-                        photoUrls.add(imageUrl);
-                        savePet(photoUrls);
-                    }
-                });
-            }
-
-            @Override
-            public void onError(String error) {
-                runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        progressDialog.dismiss();
-                        Log.e("AddPetActivity", "ImageKit upload failed: " + error);
-                        Toast.makeText(AddPetActivity.this, "Upload failed: " + error, Toast.LENGTH_LONG).show();
-                    }
-                });
-            }
-        });
-    }
-
     private void populateFields() {
         if (existingPet == null) return;
 
-        // Populate owner fields
-        if (existingPet.getOwner() != null) {
-            ownerNameEdit.setText(existingPet.getOwner().getName());
-            ownerEmailEdit.setText(existingPet.getOwner().getEmail());
-            ownerPhoneEdit.setText(existingPet.getOwner().getPhone());
-        }
+        // Populate owner fields; a summary from the list only has the owner's id
+        populateOwner(existingPet.getOwner() != null
+                ? existingPet.getOwner() : OwnerCache.shared().get(existingPet.getOwnerId()));
 
         // Populate pet fields
         petNameEdit.setText(existingPet.getName());
-        petTypeEdit.setText(existingPet.getType());
-        petAgeEdit.setText(existingPet.getAge());
+        petTypeEdit.setText(existingPet.getTypeLabel());
+        petAgeEdit.setText(PetAge.format(existingPet.getAgeMonths()));
         petRaceEdit.setText(existingPet.getRace());
         petDescriptionEdit.setText(existingPet.getDescription());
 
@@ -278,9 +273,10 @@ public class AddPetActivity extends AppCompatActivity {
         if (existingPet.getPhotoUrls() != null && !existingPet.getPhotoUrls().isEmpty()) {
             String imageUrl = existingPet.getPhotoUrls().get(0);
             if (imageUrl != null && !imageUrl.isEmpty()) {
-                // Use Glide to load the image
+                // Use Glide to load the image, sized for the preview
+                int previewSize = getResources().getDimensionPixelSize(R.dimen.pet_preview_size);
                 com.bumptech.glide.Glide.with(this)
-                        .load(imageUrl)
+                        .load(ImageKitUrl.sized(imageUrl, previewSize, previewSize))
                         .placeholder(R.drawable.circular_image)
                         .error(R.drawable.circular_image)
                         .circleCrop()
@@ -291,14 +287,20 @@ public class AddPetActivity extends AppCompatActivity {
         }
     }
 
-    private void savePet(List<String> photoUrls) {
-        if (photoUrls == null) {
-            // If no new image uploaded, keep existing photo URLs
-            if (isEditMode && existingPet != null && existingPet.getPhotoUrls() != null) {
-                photoUrls = existingPet.getPhotoUrls();
-            } else {
-                photoUrls = new ArrayList<>();
-            }
+    private void populateOwner(Owner owner) {
+        if (owner == null) return;
+        ownerNameEdit.setText(owner.getName());
+        ownerEmailEdit.setText(owner.getEmail());
+        ownerPhoneEdit.setText(owner.getPhone());
+    }
+
+    private void savePet() {
+        // Keep existing photo URLs unless new images replace them
+        List<String> photoUrls;
+        if (isEditMode && existingPet != null && existingPet.getPhotoUrls() != null) {
+            photoUrls = existingPet.getPhotoUrls();
+        } else {
+            photoUrls = new ArrayList<>();
         }
 
         Owner owner = new Owner(
@@ -307,45 +309,52 @@ public class AddPetActivity extends AppCompatActivity {
                 ownerPhoneEdit.getText().toString().trim()
         );
 
-        Pet pet = new Pet(
-                petId, // Use existing ID if editing, null if creating new
-                petNameEdit.getText().toString().trim(),
-                petDescriptionEdit.getText().toString().trim(),
-                petTypeEdit.getText().toString().trim(),
-                petAgeEdit.getText().toString().trim(),
-                petRaceEdit.getText().toString().trim(),
-                owner,
-                photoUrls
-        );
+        Pet pet = Pet.builder()
+                .id(petId) // Use existing ID if editing, null if creating new
+                .name(petNameEdit.getText().toString().trim())
+                .description(petDescriptionEdit.getText().toString().trim())
+                .type(petTypeEdit.getText().toString().trim())
+                .ageMonths(PetAge.parse(petAgeEdit.getText().toString()))
+                .race(petRaceEdit.getText().toString().trim())
+                .owner(owner)
+                .photoUrls(photoUrls)
+                .build();
+
+        if (!selectedImageUris.isEmpty()) {
+            // Verify we can read the URIs before handing them to the queue
+            try {
+                for (Uri uri : selectedImageUris) {
+                    getContentResolver().openInputStream(uri).close();
+                }
+            } catch (Exception e) {
+                Log.e("AddPetActivity", "Cannot read image URI", e);
+                Toast.makeText(this, "Cannot access image. Please try selecting again.", Toast.LENGTH_LONG).show();
+                return;
+            }
+        }
 
-        if (isEditMode && petId != null) {
-            // Update existing pet
-            db.collection("pets")
-                    .document(petId)
-                    .set(pet)
-                    .addOnSuccessListener(aVoid -> {
-                        progressDialog.dismiss();
-                        Toast.makeText(this, R.string.pet_updated, Toast.LENGTH_SHORT).show();
-                        finish();
-                    })
-                    .addOnFailureListener(e -> {
-                        progressDialog.dismiss();
-                        Toast.makeText(this, R.string.error, Toast.LENGTH_SHORT).show();
-                    });
-        } else {
-            // Create new pet
-            db.collection("pets")
-                    .add(pet)
-                    .addOnSuccessListener(documentReference -> {
-                        progressDialog.dismiss();
-                        Toast.makeText(this, R.string.success, Toast.LENGTH_SHORT).show();
-                        finish();
-                    })
-                    .addOnFailureListener(e -> {
-                        progressDialog.dismiss();
-                        Toast.makeText(this, R.string.error, Toast.LENGTH_SHORT).show();
-                    });
+        if (isEditMode || !selectedImageUris.isEmpty()) {
+            // Uploads and edits need the server, so they run in the background queue,
+            // which waits for a connection and retries; the form closes right away
+            try {
+                PetSaveQueue.enqueue(this, db, isEditMode ? existingPet : null, pet, selectedImageUris);
+            } catch (IOException e) {
+                Log.e("AddPetActivity", "Could not queue pet", e);
+                Toast.makeText(this, R.string.save_failed, Toast.LENGTH_LONG).show();
+                return;
+            }
+            Toast.makeText(this, R.string.saving_in_background, Toast.LENGTH_SHORT).show();
+            finish();
+            return;
         }
+
+        // A new pet without photos is applied locally at once and synced when Firestore can
+        final Context appContext = getApplicationContext();
+        PetWriter.save(db, pet).addOnFailureListener(e -> {
+            Log.e("AddPetActivity", "Could not save pet", e);
+            Toast.makeText(appContext, R.string.save_failed, Toast.LENGTH_LONG).show();
+        });
+        Toast.makeText(this, R.string.success, Toast.LENGTH_SHORT).show();
+        finish();
     }
 }
-
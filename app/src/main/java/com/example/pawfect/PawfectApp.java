@@ -0,0 +1,35 @@
+package com.example.pawfect;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.work.Configuration;
+
+import com.example.pawfect.data.FirestoreConfig;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Application class; applies the Firestore settings before anything uses Firestore,
+ * and configures WorkManager on demand instead of through its default startup
+ * initializer.
+ */
+public class PawfectApp extends Application implements Configuration.Provider {
+
+    // Queued pet saves upload at most this many jobs at once
+    private static final int MAX_CONCURRENT_JOBS = 2;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        FirestoreConfig.get();
+    }
+
+    @NonNull
+    @Override
+    public Configuration getWorkManagerConfiguration() {
+        return new Configuration.Builder()
+                .setExecutor(Executors.newFixedThreadPool(MAX_CONCURRENT_JOBS))
+                .build();
+    }
+}
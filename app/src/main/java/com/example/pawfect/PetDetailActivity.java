@@ -3,6 +3,7 @@ package com.example.pawfect;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.MenuItem;
 import android.widget.ImageView;
 import android.widget.TextView;
@@ -11,11 +12,19 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 
 import com.bumptech.glide.Glide;
+import com.example.pawfect.data.FirestoreConfig;
+import com.example.pawfect.data.OwnerCache;
+import com.example.pawfect.data.PetReader;
+import com.example.pawfect.data.PetStore;
 import com.example.pawfect.model.Owner;
 import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetAge;
+import com.example.pawfect.util.ImageKitUrl;
 
 public class PetDetailActivity extends AppCompatActivity {
 
+    private static final String TAG = "PetDetailActivity";
+
     private ImageView petImage;
     private TextView petName;
     private TextView petDescription;
@@ -55,23 +64,38 @@ public class PetDetailActivity extends AppCompatActivity {
         ownerPhone = findViewById(R.id.ownerPhone);
     }
 
+    /**
+     * Show the summary the list passed straight away, then the full pet once it is read
+     */
     private void loadPetData() {
-        Pet pet = (Pet) getIntent().getSerializableExtra("pet");
+        Pet pet = PetStore.fromIntent(getIntent());
         
         if (pet == null) {
             finish();
             return;
         }
+        showPet(pet);
+
+        PetReader.get(FirestoreConfig.get(), pet.getId())
+                .addOnSuccessListener(this, fullPet -> {
+                    if (fullPet == null) return;
+                    PetStore.put(fullPet);
+                    showPet(fullPet);
+                })
+                .addOnFailureListener(this, e -> Log.w(TAG, "Could not load pet " + pet.getId(), e));
+    }
 
+    private void showPet(Pet pet) {
         // Set pet information
         petName.setText(pet.getName() != null ? pet.getName() : "Unknown");
         petDescription.setText(pet.getDescription() != null ? pet.getDescription() : "No description available");
-        petType.setText(pet.getType() != null ? pet.getType() : "Unknown");
-        petAge.setText(pet.getAge() != null ? pet.getAge() : "Unknown");
+        petType.setText(pet.getTypeLabel() != null ? pet.getTypeLabel() : "Unknown");
+        String age = PetAge.format(pet.getAgeMonths());
+        petAge.setText(age != null ? age : "Unknown");
         petRace.setText(pet.getRace() != null ? pet.getRace() : "Unknown");
 
-        // Set owner information
-        Owner owner = pet.getOwner();
+        // Set owner information; a summary from the list only has the owner's id
+        Owner owner = pet.getOwner() != null ? pet.getOwner() : OwnerCache.shared().get(pet.getOwnerId());
         if (owner != null) {
             ownerName.setText(owner.getName() != null ? owner.getName() : "Unknown");
             ownerEmail.setText(owner.getEmail() != null ? owner.getEmail() : "N/A");
@@ -107,8 +131,12 @@ public class PetDetailActivity extends AppCompatActivity {
 
         // Load pet image using Glide
         if (pet.getPhotoUrls() != null && !pet.getPhotoUrls().isEmpty() && !pet.getPhotoUrls().get(0).isEmpty()) {
+            // Full width of the screen at the image view's fixed height
+            String imageUrl = ImageKitUrl.sized(pet.getPhotoUrls().get(0),
+                    getResources().getDisplayMetrics().widthPixels,
+                    getResources().getDimensionPixelSize(R.dimen.pet_detail_image_height));
             Glide.with(this)
-                    .load(pet.getPhotoUrls().get(0))
+                    .load(imageUrl)
                     .placeholder(R.drawable.circular_image)
                     .error(R.drawable.circular_image)
                     .centerCrop()
@@ -1,144 +1,346 @@
 package com.example.pawfect;
 
+import android.content.Context;
 import android.content.Intent;
+import android.content.res.Resources;
+import android.net.Uri;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.view.ActionMode;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
 import com.example.pawfect.adapter.PetAdapter;
+import com.example.pawfect.data.FirestoreConfig;
+import com.example.pawfect.data.OwnerCache;
+import com.example.pawfect.data.PetBulkOperations;
+import com.example.pawfect.data.PetImportParser;
+import com.example.pawfect.data.PetPager;
+import com.example.pawfect.data.PetRepository;
+import com.example.pawfect.data.PetSchemaMigration;
+import com.example.pawfect.data.PetStore;
+import com.example.pawfect.data.PetSummaries;
+import com.example.pawfect.data.PetWriter;
+import com.example.pawfect.data.QueryMetrics;
 import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetType;
+import com.example.pawfect.search.PetFilterPipeline;
+import com.example.pawfect.util.ImageCacheStats;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
+import com.google.android.material.progressindicator.LinearProgressIndicator;
+import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
-import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.Query;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class PetListActivity extends AppCompatActivity implements PetAdapter.OnPetClickListener {
 
+    private static final String TAG = "PetListActivity";
+    // Start fetching the next page when this many items remain below the last visible one
+    private static final int PREFETCH_DISTANCE = 5;
+    private static final int INITIAL_PREFETCH_ITEMS = 4;
+    private static final int ITEM_VIEW_CACHE_SIZE = 6;
+    // About a screenful of cards
+    private static final int MAX_PRELOAD = 8;
+    private static final int IMPORT_REQUEST = 200;
+
     private RecyclerView recyclerView;
+    private LinearLayoutManager layoutManager;
     private PetAdapter adapter;
     private List<Pet> allPets;
     private List<Pet> filteredPets;
     private ProgressBar progressBar;
+    private LinearProgressIndicator bulkProgress;
     private TextView noPetsText;
     private ChipGroup filterChipGroup;
     private Chip allChip, dogChip, catChip;
+    private TextInputEditText searchEditText;
     private FirebaseFirestore db;
-    private String searchQuery;
+    private PetPager pager;
+    private PetRepository repository;
+    private PetFilterPipeline filterPipeline;
+    private PetType currentFilter; // null for all pets
+    private boolean pagerDelivered = false;
+    private PetBulkOperations bulkOperations;
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor();
+    private final Set<String> selectedIds = new LinkedHashSet<>();
+    private ActionMode actionMode;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_pet_list);
 
-        searchQuery = getIntent().getStringExtra("searchQuery");
-
         initializeViews();
         setupRecyclerView();
         setupFilters();
+        setupSearch();
+        loadCachedPets();
         loadPets();
+
+        new PetSchemaMigration(this, db).runIfNeeded();
     }
 
     @Override
-    protected void onResume() {
-        super.onResume();
-        loadPets();
+    protected void onDestroy() {
+        super.onDestroy();
+        pager.stop();
+        filterPipeline.shutdown();
+        importExecutor.shutdown();
+        Log.d(TAG, "Image caches: " + ImageCacheStats.summary());
+        Log.d(TAG, "Firestore reads: " + QueryMetrics.summary());
+    }
+
+    /**
+     * Stop the live query and the filter, so the list only changes through its adapter,
+     * e.g. while a benchmark fills it with synthetic pets
+     */
+    @VisibleForTesting
+    public void stopUpdates() {
+        pager.stop();
+        filterPipeline.shutdown();
     }
 
     private void initializeViews() {
         recyclerView = findViewById(R.id.recyclerView);
         progressBar = findViewById(R.id.progressBar);
+        bulkProgress = findViewById(R.id.bulkProgress);
+        findViewById(R.id.importButton).setOnClickListener(v -> openImportPicker());
+        findViewById(R.id.refreshButton).setOnClickListener(v -> refreshFromServer());
         noPetsText = findViewById(R.id.noPetsText);
         filterChipGroup = findViewById(R.id.filterChipGroup);
         allChip = findViewById(R.id.allChip);
         dogChip = findViewById(R.id.dogChip);
         catChip = findViewById(R.id.catChip);
-        db = FirebaseFirestore.getInstance();
+        searchEditText = findViewById(R.id.searchEditText);
+        db = FirestoreConfig.get();
         allPets = new ArrayList<>();
         filteredPets = new ArrayList<>();
+        filterPipeline = new PetFilterPipeline(getMainExecutor(), this::showPets);
+        repository = PetRepository.create(this, db);
+        bulkOperations = new PetBulkOperations(db);
+        pager = new PetPager(petsQuery(null), new PetPager.Listener() {
+            @Override
+            public void onPetsChanged(List<Pet> pets) {
+                pagerDelivered = true;
+                progressBar.setVisibility(View.GONE);
+                allPets.clear();
+                allPets.addAll(pets);
+                filterPipeline.setPets(pets);
+                // Only the unfiltered top of the list is worth showing on the next cold start
+                if (currentFilter == null && !pager.hasMoreBefore()) {
+                    repository.save(pets, !pager.hasMoreAfter());
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                progressBar.setVisibility(View.GONE);
+                boolean offline = e instanceof FirebaseFirestoreException
+                        && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.UNAVAILABLE;
+                Toast.makeText(PetListActivity.this, offline ? R.string.refresh_offline : R.string.error,
+                        Toast.LENGTH_SHORT).show();
+                if (allPets.isEmpty()) {
+                    noPetsText.setVisibility(View.VISIBLE);
+                }
+            }
+
+            @Override
+            public void onPendingWritesChanged(Set<String> petIds) {
+                // Show local edits straight away, marked until the server confirms them
+                adapter.setPendingIds(petIds);
+            }
+        });
     }
 
     private void setupRecyclerView() {
-        adapter = new PetAdapter(filteredPets, this);
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new PetAdapter(this, OwnerCache.shared());
+        layoutManager = new LinearLayoutManager(this);
+        // Lets GapWorker prepare cards further ahead while the list is idle between frames
+        layoutManager.setInitialPrefetchItemCount(INITIAL_PREFETCH_ITEMS);
+        recyclerView.setLayoutManager(layoutManager);
+        // The list's own size never depends on its content
+        recyclerView.setHasFixedSize(true);
+        // Cards scrolled just off screen come back without a rebind
+        recyclerView.setItemViewCacheSize(ITEM_VIEW_CACHE_SIZE);
         recyclerView.setAdapter(adapter);
+
+        int thumbnailSize = getResources().getDimensionPixelSize(R.dimen.pet_thumbnail_size);
+        recyclerView.addOnScrollListener(adapter.createPreloader(Glide.with(this), thumbnailSize, MAX_PRELOAD));
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                prefetchIfNeeded(dy);
+            }
+        });
+    }
+
+    /**
+     * Ask the pager for a neighbouring page when the user gets close to either end of
+     * what is resident. A dy of 0 means "not scrolling": only fill the screen downwards.
+     */
+    private void prefetchIfNeeded(int dy) {
+        // While searching, few hits keep the list short, so this pages on through the
+        // collection and every pet reaches the search index
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        int count = filteredPets.size();
+
+        if (dy >= 0 && (count < PREFETCH_DISTANCE || last >= count - PREFETCH_DISTANCE)) {
+            pager.loadNextPage();
+        } else if (dy < 0 && first != RecyclerView.NO_POSITION && first < PREFETCH_DISTANCE) {
+            pager.loadPreviousPage();
+        }
     }
 
     private void setupFilters() {
-        allChip.setOnClickListener(v -> filterPets("all"));
-        dogChip.setOnClickListener(v -> filterPets("dog"));
-        catChip.setOnClickListener(v -> filterPets("cat"));
+        allChip.setOnClickListener(v -> filterPets(null));
+        dogChip.setOnClickListener(v -> filterPets(PetType.DOG));
+        catChip.setOnClickListener(v -> filterPets(PetType.CAT));
 
         allChip.setChecked(true);
     }
 
-    private void loadPets() {
-        progressBar.setVisibility(View.VISIBLE);
-        noPetsText.setVisibility(View.GONE);
+    private void setupSearch() {
+        String searchQuery = getIntent().getStringExtra("searchQuery");
+        if (searchQuery != null) {
+            searchEditText.setText(searchQuery);
+            setSearchQuery(searchQuery);
+        }
 
-        db.collection("pets")
-                .get()
-                .addOnCompleteListener(task -> {
-                    progressBar.setVisibility(View.GONE);
-                    if (task.isSuccessful()) {
-                        allPets.clear();
-                        for (QueryDocumentSnapshot document : task.getResult()) {
-                            Pet pet = document.toObject(Pet.class);
-                            pet.setId(document.getId());
-                            allPets.add(pet);
-                        }
-                        filterPets("all");
-                    } else {
-                        Toast.makeText(this, R.string.error, Toast.LENGTH_SHORT).show();
-                        noPetsText.setVisibility(View.VISIBLE);
-                    }
-                });
-    }
+        searchEditText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
 
-    private void filterPets(String filter) {
-        filteredPets.clear();
+            @Override
+            public void afterTextChanged(Editable s) {
+                setSearchQuery(s.toString().trim());
+            }
+        });
+    }
 
-        for (Pet pet : allPets) {
-            boolean matchesFilter = filter.equals("all") ||
-                    pet.getType() != null && pet.getType().toLowerCase().equals(filter.toLowerCase());
+    /**
+     * Filter the pets by query. While it is non-empty the pager keeps loading pages but
+     * drops none, so the whole collection is searched and the matches stay put.
+     */
+    private void setSearchQuery(String query) {
+        pager.setTrimming(query.isEmpty());
+        filterPipeline.setQuery(query);
+    }
 
-            boolean matchesSearch = searchQuery == null || searchQuery.isEmpty() ||
-                    (pet.getName() != null && pet.getName().toLowerCase().contains(searchQuery.toLowerCase())) ||
-                    (pet.getDescription() != null && pet.getDescription().toLowerCase().contains(searchQuery.toLowerCase())) ||
-                    (pet.getRace() != null && pet.getRace().toLowerCase().contains(searchQuery.toLowerCase()));
+    /**
+     * Show the pets saved by the last session while the live query warms up
+     */
+    private void loadCachedPets() {
+        repository.load(new PetRepository.Callback() {
+            @Override
+            public void onPets(List<Pet> pets, boolean fromCache) {
+                if (pagerDelivered || isDestroyed()) return;
+                progressBar.setVisibility(View.GONE);
+                allPets.clear();
+                allPets.addAll(pets);
+                filterPipeline.setPets(pets);
+            }
 
-            if (matchesFilter && matchesSearch) {
-                filteredPets.add(pet);
+            @Override
+            public void onError(Exception e) {
+                // Keep showing the cached pets; the pager reports its own errors
             }
+        });
+    }
+
+    private void loadPets() {
+        if (allPets.isEmpty()) {
+            progressBar.setVisibility(View.VISIBLE);
         }
+        noPetsText.setVisibility(View.GONE);
+        pager.refresh();
+    }
+
+    /**
+     * The refresh button: unlike loadPets, go to the server rather than the cache
+     */
+    private void refreshFromServer() {
+        progressBar.setVisibility(View.VISIBLE);
+        noPetsText.setVisibility(View.GONE);
+        pager.refreshFromServer();
+    }
 
-        adapter.notifyDataSetChanged();
+    /**
+     * Filter locally right away, then page over only the matching documents
+     */
+    private void filterPets(PetType filter) {
+        currentFilter = filter;
+        filterPipeline.setType(filter);
+        pager.setQuery(petsQuery(filter));
+    }
 
-        if (filteredPets.isEmpty()) {
+    private Query petsQuery(PetType filter) {
+        // Cards only need the summaries; detail and edit load the full pet by id
+        Query query = db.collection(PetSummaries.COLLECTION);
+        if (filter != null) {
+            query = query.whereEqualTo("typeKey", filter.key());
+        }
+        return query;
+    }
+
+    /**
+     * Publish a filter result; the list is immutable so the adapter can diff it safely
+     */
+    private void showPets(List<Pet> pets) {
+        filteredPets = pets;
+        adapter.submitList(pets);
+
+        if (pets.isEmpty()) {
             noPetsText.setVisibility(View.VISIBLE);
             recyclerView.setVisibility(View.GONE);
         } else {
             noPetsText.setVisibility(View.GONE);
             recyclerView.setVisibility(View.VISIBLE);
         }
+        prefetchIfNeeded(0);
     }
 
     @Override
     public void onPetClick(Pet pet) {
+        if (actionMode != null) {
+            toggleSelection(pet);
+            return;
+        }
         // Navigate to PetDetailActivity
         Intent intent = new Intent(this, PetDetailActivity.class);
-        intent.putExtra("pet", pet);
+        PetStore.putExtra(intent, pet);
         startActivity(intent);
     }
 
@@ -146,8 +348,7 @@ public class PetListActivity extends AppCompatActivity implements PetAdapter.OnP
     public void onEditClick(Pet pet) {
         // Navigate to AddPetActivity in edit mode
         Intent intent = new Intent(this, AddPetActivity.class);
-        intent.putExtra("petId", pet.getId());
-        intent.putExtra("pet", pet);
+        PetStore.putExtra(intent, pet);
         startActivity(intent);
     }
 
@@ -162,6 +363,170 @@ public class PetListActivity extends AppCompatActivity implements PetAdapter.OnP
                 .show();
     }
 
+    @Override
+    public boolean onPetLongClick(Pet pet) {
+        if (actionMode == null) {
+            actionMode = startSupportActionMode(selectionCallback);
+            adapter.setSelectedIds(Collections.unmodifiableSet(selectedIds));
+        }
+        toggleSelection(pet);
+        return true;
+    }
+
+    private void toggleSelection(Pet pet) {
+        if (pet.getId() == null) return;
+        if (!selectedIds.remove(pet.getId())) {
+            selectedIds.add(pet.getId());
+        }
+
+        if (selectedIds.isEmpty()) {
+            actionMode.finish();
+        } else {
+            actionMode.setTitle(getString(R.string.selected_count, selectedIds.size()));
+            adapter.setSelectedIds(Collections.unmodifiableSet(selectedIds));
+        }
+    }
+
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.getMenuInflater().inflate(R.menu.pet_selection_menu, menu);
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            if (item.getItemId() == R.id.deleteSelectedMenuItem) {
+                confirmDeleteSelected();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            actionMode = null;
+            selectedIds.clear();
+            adapter.setSelectedIds(Collections.emptySet());
+        }
+    };
+
+    private void confirmDeleteSelected() {
+        List<String> petIds = new ArrayList<>(selectedIds);
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.delete_pet)
+                .setMessage(getResources().getQuantityString(R.plurals.delete_selected_confirmation,
+                        petIds.size(), petIds.size()))
+                .setPositiveButton(R.string.yes, (dialog, which) -> {
+                    // The page listeners drop the cards as soon as the deletes apply locally
+                    bulkOperations.deleteAll(petIds, bulkListener(R.plurals.pets_deleted, 0));
+                    if (actionMode != null) actionMode.finish();
+                })
+                .setNegativeButton(R.string.no, null)
+                .show();
+    }
+
+    private void openImportPicker() {
+        Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
+        intent.setType("*/*");
+        intent.putExtra(Intent.EXTRA_MIME_TYPES, new String[] {
+                "application/json", "text/csv", "text/comma-separated-values", "text/plain"});
+        startActivityForResult(intent, IMPORT_REQUEST);
+    }
+
+    @Override
+    protected void onActivityResult(int requestCode, int resultCode, Intent data) {
+        super.onActivityResult(requestCode, resultCode, data);
+        if (requestCode == IMPORT_REQUEST && resultCode == RESULT_OK && data != null && data.getData() != null) {
+            importPets(data.getData());
+        }
+    }
+
+    /**
+     * Read and parse the file off the main thread, then write the pets in batches
+     */
+    private void importPets(Uri uri) {
+        bulkProgress.setIndeterminate(true);
+        bulkProgress.setVisibility(View.VISIBLE);
+        String fileName = "application/json".equals(getContentResolver().getType(uri)) ? "import.json" : uri.getLastPathSegment();
+
+        importExecutor.execute(() -> {
+            PetImportParser.Result parsed;
+            try (InputStream in = getContentResolver().openInputStream(uri)) {
+                if (in == null) throw new IOException("Cannot open " + uri);
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                byte[] buffer = new byte[16 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    content.write(buffer, 0, read);
+                }
+                parsed = PetImportParser.parse(content.toString("UTF-8"), fileName);
+            } catch (IOException e) {
+                Log.e(TAG, "Could not read import file", e);
+                runOnUiThread(() -> {
+                    bulkProgress.setVisibility(View.GONE);
+                    Toast.makeText(this, R.string.error, Toast.LENGTH_SHORT).show();
+                });
+                return;
+            }
+
+            PetImportParser.Result result = parsed;
+            runOnUiThread(() -> {
+                for (String error : result.errors) {
+                    Log.w(TAG, "Import: " + error);
+                }
+                if (result.pets.isEmpty()) {
+                    bulkProgress.setVisibility(View.GONE);
+                    Toast.makeText(this, R.string.import_empty, Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                bulkOperations.importAll(new ArrayList<>(result.pets),
+                        bulkListener(R.plurals.pets_imported, result.errors.size()));
+            });
+        });
+    }
+
+    /**
+     * Shows batch progress in bulkProgress and a summary toast at the end
+     */
+    private PetBulkOperations.Listener bulkListener(int donePlurals, int skipped) {
+        bulkProgress.setIndeterminate(false);
+        bulkProgress.setProgressCompat(0, false);
+        bulkProgress.setVisibility(View.VISIBLE);
+        final Context appContext = getApplicationContext();
+
+        return new PetBulkOperations.Listener() {
+            @Override
+            public void onProgress(int done, int total) {
+                bulkProgress.setMax(total);
+                bulkProgress.setProgressCompat(done, true);
+            }
+
+            @Override
+            public void onComplete(PetBulkOperations.Result result) {
+                bulkProgress.setVisibility(View.GONE);
+                Resources resources = appContext.getResources();
+                StringBuilder message = new StringBuilder(resources.getQuantityString(
+                        donePlurals, result.succeededIds.size(), result.succeededIds.size()));
+                if (result.hasFailures()) {
+                    Log.e(TAG, "Bulk operation partly failed", result.firstError);
+                    message.append('\n').append(resources.getQuantityString(
+                            R.plurals.pets_failed, result.failedIds.size(), result.failedIds.size()));
+                }
+                if (skipped > 0) {
+                    message.append('\n').append(resources.getQuantityString(R.plurals.import_skipped, skipped, skipped));
+                }
+                Toast.makeText(appContext, message, Toast.LENGTH_LONG).show();
+            }
+        };
+    }
+
     private void deletePet(Pet pet) {
         if (pet.getId() == null || pet.getId().isEmpty()) {
             Toast.makeText(this, R.string.error, Toast.LENGTH_SHORT).show();
@@ -170,14 +535,11 @@ public class PetListActivity extends AppCompatActivity implements PetAdapter.OnP
 
         progressBar.setVisibility(View.VISIBLE);
 
-        db.collection("pets")
-                .document(pet.getId())
-                .delete()
+        PetWriter.delete(db, pet.getId())
                 .addOnSuccessListener(aVoid -> {
                     progressBar.setVisibility(View.GONE);
                     Toast.makeText(this, R.string.pet_deleted, Toast.LENGTH_SHORT).show();
-                    // Reload pets to refresh the list
-                    loadPets();
+                    // The page listener removes the card, no reload needed
                 })
                 .addOnFailureListener(e -> {
                     progressBar.setVisibility(View.GONE);
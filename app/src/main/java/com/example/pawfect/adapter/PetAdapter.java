@@ -1,5 +1,6 @@
 package com.example.pawfect.adapter;
 
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -7,29 +8,92 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 import com.example.pawfect.R;
+import com.example.pawfect.data.OwnerCache;
+import com.example.pawfect.model.Owner;
 import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetAge;
+import com.example.pawfect.util.ImageKitUrl;
 import com.google.android.material.button.MaterialButton;
+import com.google.android.material.card.MaterialCardView;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
-public class PetAdapter extends RecyclerView.Adapter<PetAdapter.PetViewHolder> {
+/**
+ * Pets are submitted as whole lists with submitList(); DiffUtil runs on a background
+ * thread and only the cards whose pet actually changed are rebound.
+ *
+ * Pets from summaries carry an ownerId rather than an owner. Each new list has its
+ * missing owners fetched together through the OwnerCache, and the cards of those
+ * owners get their contact details rebound once they arrive.
+ */
+public class PetAdapter extends ListAdapter<Pet, PetAdapter.PetViewHolder> {
+
+    private static final DiffUtil.ItemCallback<Pet> DIFF_CALLBACK = new DiffUtil.ItemCallback<Pet>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Pet oldPet, @NonNull Pet newPet) {
+            return Objects.equals(oldPet.getId(), newPet.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Pet oldPet, @NonNull Pet newPet) {
+            return oldPet.equals(newPet);
+        }
+    };
+
+    // Rebind only the checked and syncing state when the selection or pending writes change
+    private static final Object PAYLOAD_STATE = new Object();
+    // Rebind only the owner rows once the owner has been loaded
+    private static final Object PAYLOAD_OWNER = new Object();
+    // Cards whose local changes the server has not confirmed yet
+    private static final float PENDING_ALPHA = 0.6f;
 
-    private List<Pet> pets;
     private OnPetClickListener listener;
+    private final OwnerCache ownerCache;
+    private Set<String> selectedIds = Collections.emptySet();
+    private Set<String> pendingIds = Collections.emptySet();
 
     public interface OnPetClickListener {
         void onPetClick(Pet pet);
         void onEditClick(Pet pet);
         void onDeleteClick(Pet pet);
+
+        /**
+         * Long press on a card, e.g. to start selecting; return true if handled
+         */
+        default boolean onPetLongClick(Pet pet) {
+            return false;
+        }
     }
 
-    public PetAdapter(List<Pet> pets, OnPetClickListener listener) {
-        this.pets = pets;
+    public PetAdapter(OnPetClickListener listener) {
+        this(listener, null);
+    }
+
+    /**
+     * @param ownerCache resolves pets that only have an ownerId; null to show only
+     *                   owners the pets carry themselves
+     */
+    public PetAdapter(OnPetClickListener listener, OwnerCache ownerCache) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
+        this.ownerCache = ownerCache;
     }
 
     @NonNull
@@ -42,16 +106,119 @@ public class PetAdapter extends RecyclerView.Adapter<PetAdapter.PetViewHolder> {
 
     @Override
     public void onBindViewHolder(@NonNull PetViewHolder holder, int position) {
-        Pet pet = pets.get(position);
+        Pet pet = getItem(position);
         holder.bind(pet);
     }
 
     @Override
-    public int getItemCount() {
-        return pets.size();
+    public void onBindViewHolder(@NonNull PetViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && payloads.stream().allMatch(payload -> payload == PAYLOAD_STATE || payload == PAYLOAD_OWNER)) {
+            Pet pet = getItem(position);
+            if (payloads.contains(PAYLOAD_STATE)) holder.bindState(pet);
+            if (payloads.contains(PAYLOAD_OWNER)) holder.bindOwner(pet);
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    @Override
+    public void onCurrentListChanged(@NonNull List<Pet> previousList, @NonNull List<Pet> currentList) {
+        if (ownerCache == null) return;
+        List<String> ownerIds = new ArrayList<>();
+        for (Pet pet : currentList) {
+            if (pet.getOwner() == null && pet.getOwnerId() != null) {
+                ownerIds.add(pet.getOwnerId());
+            }
+        }
+        if (!ownerIds.isEmpty()) {
+            ownerCache.prefetch(ownerIds, this::onOwnersLoaded);
+        }
+    }
+
+    private void onOwnersLoaded(Set<String> ownerIds) {
+        List<Pet> pets = getCurrentList();
+        for (int i = 0; i < pets.size(); i++) {
+            Pet pet = pets.get(i);
+            if (pet.getOwner() == null && ownerIds.contains(pet.getOwnerId())) {
+                notifyItemChanged(i, PAYLOAD_OWNER);
+            }
+        }
+    }
+
+    private Owner ownerOf(Pet pet) {
+        if (pet.getOwner() != null || ownerCache == null) return pet.getOwner();
+        return ownerCache.get(pet.getOwnerId());
+    }
+
+    /**
+     * Ids of the pets shown as selected; empty when not selecting
+     */
+    public void setSelectedIds(Set<String> selectedIds) {
+        this.selectedIds = selectedIds;
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_STATE);
+    }
+
+    /**
+     * Ids of the pets with local writes still waiting for the server
+     */
+    public void setPendingIds(Set<String> pendingIds) {
+        this.pendingIds = pendingIds;
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_STATE);
     }
 
-    class PetViewHolder extends RecyclerView.ViewHolder {
+    /**
+     * Preloads the thumbnails of the cards just beyond the screen while the list
+     * scrolls, so they are decoded before they are bound. Add it as a scroll listener.
+     */
+    public RecyclerViewPreloader<String> createPreloader(RequestManager glide, int thumbnailSize, int maxPreload) {
+        ListPreloader.PreloadModelProvider<String> models = new ListPreloader.PreloadModelProvider<String>() {
+            @NonNull
+            @Override
+            public List<String> getPreloadItems(int position) {
+                if (position >= getItemCount()) return Collections.emptyList();
+                String url = thumbnailUrl(getItem(position), thumbnailSize);
+                return url != null ? Collections.singletonList(url) : Collections.emptyList();
+            }
+
+            @Override
+            public RequestBuilder<?> getPreloadRequestBuilder(@NonNull String url) {
+                return thumbnailRequest(glide, url);
+            }
+        };
+        return new RecyclerViewPreloader<>(glide, models,
+                new FixedPreloadSizeProvider<>(thumbnailSize, thumbnailSize), maxPreload);
+    }
+
+    /**
+     * ImageKit URL of the pet's first photo sized for a card, or null when it has none
+     */
+    private static String thumbnailUrl(Pet pet, int thumbnailSize) {
+        List<String> photoUrls = pet.getPhotoUrls();
+        if (photoUrls == null || photoUrls.isEmpty() || photoUrls.get(0) == null || photoUrls.get(0).isEmpty()) {
+            return null;
+        }
+        // Ask ImageKit for a thumbnail sized for the view rather than the original
+        return ImageKitUrl.sized(photoUrls.get(0), thumbnailSize, thumbnailSize);
+    }
+
+    /**
+     * Shared by bind and the preloader; both must build the same request for a preloaded
+     * image to be a memory cache hit.
+     *
+     * Thumbnails are opaque squares decoded as RGB_565, half the memory of ARGB_8888;
+     * the card clips them to a circle when drawing, so no circleCrop bitmap is made per
+     * card. The cropped result is what goes to the disk cache.
+     */
+    private static RequestBuilder<Drawable> thumbnailRequest(RequestManager glide, String url) {
+        return glide.load(url)
+                .format(DecodeFormat.PREFER_RGB_565)
+                .diskCacheStrategy(DiskCacheStrategy.RESOURCE)
+                .placeholder(R.drawable.circular_image)
+                .error(R.drawable.circular_image)
+                .centerCrop();
+    }
+
+    public class PetViewHolder extends RecyclerView.ViewHolder {
         private ImageView petImage;
         private TextView petName;
         private TextView petDescription;
@@ -63,6 +230,7 @@ public class PetAdapter extends RecyclerView.Adapter<PetAdapter.PetViewHolder> {
         private TextView ownerPhone;
         private MaterialButton editButton;
         private MaterialButton deleteButton;
+        private final int thumbnailSize;
 
         public PetViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -77,65 +245,78 @@ public class PetAdapter extends RecyclerView.Adapter<PetAdapter.PetViewHolder> {
             ownerPhone = itemView.findViewById(R.id.ownerPhone);
             editButton = itemView.findViewById(R.id.editButton);
             deleteButton = itemView.findViewById(R.id.deleteButton);
+            thumbnailSize = itemView.getResources().getDimensionPixelSize(R.dimen.pet_thumbnail_size);
+            // The oval background is the outline, so this draws the thumbnail as a circle
+            petImage.setClipToOutline(true);
+            ((MaterialCardView) itemView).setCheckable(true);
 
             itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onPetClick(pets.get(getAdapterPosition()));
+                int position = getAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onPetClick(getItem(position));
                 }
             });
 
+            itemView.setOnLongClickListener(v -> {
+                int position = getAdapterPosition();
+                return listener != null && position != RecyclerView.NO_POSITION
+                        && listener.onPetLongClick(getItem(position));
+            });
+
             editButton.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onEditClick(pets.get(getAdapterPosition()));
+                int position = getAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onEditClick(getItem(position));
                 }
             });
 
             deleteButton.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onDeleteClick(pets.get(getAdapterPosition()));
+                int position = getAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onDeleteClick(getItem(position));
                 }
             });
         }
 
-        public void bind(Pet pet) {
-            petName.setText(pet.getName() != null ? pet.getName() : "Unknown");
-            petDescription.setText(pet.getDescription() != null ? pet.getDescription() : "No description");
-            petType.setText(pet.getType() != null ? pet.getType() : "Unknown");
-            petAge.setText(pet.getAge() != null ? pet.getAge() : "Unknown");
-            petRace.setText(pet.getRace() != null ? pet.getRace() : "Unknown");
+        public void bindState(Pet pet) {
+            ((MaterialCardView) itemView).setChecked(selectedIds.contains(pet.getId()));
+            itemView.setAlpha(pendingIds.contains(pet.getId()) ? PENDING_ALPHA : 1f);
+        }
 
-            if (pet.getOwner() != null) {
-                ownerName.setText(pet.getOwner().getName() != null ? pet.getOwner().getName() : "Unknown");
-                ownerEmail.setText(pet.getOwner().getEmail() != null ? pet.getOwner().getEmail() : "N/A");
-                ownerPhone.setText(pet.getOwner().getPhone() != null ? pet.getOwner().getPhone() : "N/A");
+        public void bindOwner(Pet pet) {
+            Owner owner = ownerOf(pet);
+            if (owner != null) {
+                ownerName.setText(owner.getName() != null ? owner.getName() : "Unknown");
+                ownerEmail.setText(owner.getEmail() != null ? owner.getEmail() : "N/A");
+                ownerPhone.setText(owner.getPhone() != null ? owner.getPhone() : "N/A");
             } else {
                 ownerName.setText("Unknown");
                 ownerEmail.setText("N/A");
                 ownerPhone.setText("N/A");
             }
+        }
+
+        public void bind(Pet pet) {
+            bindState(pet);
+            petName.setText(pet.getName() != null ? pet.getName() : "Unknown");
+            petDescription.setText(pet.getDescription() != null ? pet.getDescription() : "No description");
+            petType.setText(pet.getTypeLabel() != null ? pet.getTypeLabel() : "Unknown");
+            String age = PetAge.format(pet.getAgeMonths());
+            petAge.setText(age != null ? age : "Unknown");
+            petRace.setText(pet.getRace() != null ? pet.getRace() : "Unknown");
+
+            bindOwner(pet);
 
             // Load image using Glide
-            if (pet.getPhotoUrls() != null && !pet.getPhotoUrls().isEmpty() && !pet.getPhotoUrls().get(0).isEmpty()) {
-                Glide.with(itemView.getContext())
-                        .load(pet.getPhotoUrls().get(0))
-                        .placeholder(R.drawable.circular_image)
-                        .error(R.drawable.circular_image)
-                        .circleCrop()
-                        .into(petImage);
+            String imageUrl = thumbnailUrl(pet, thumbnailSize);
+            if (imageUrl != null) {
+                thumbnailRequest(Glide.with(itemView.getContext()), imageUrl).into(petImage);
             } else {
-                // Set default background color based on type
+                // Drop any load still pending for the pet this card showed before
+                Glide.with(itemView.getContext()).clear(petImage);
+                // Every type currently shares the default background
                 petImage.setImageDrawable(null);
-                if (pet.getType() != null) {
-                    if (pet.getType().toLowerCase().equals("dog")) {
-                        petImage.setBackgroundResource(R.drawable.circular_image);
-                    } else if (pet.getType().toLowerCase().equals("cat")) {
-                        petImage.setBackgroundResource(R.drawable.circular_image);
-                    } else {
-                        petImage.setBackgroundResource(R.drawable.circular_image);
-                    }
-                } else {
-                    petImage.setBackgroundResource(R.drawable.circular_image);
-                }
+                petImage.setBackgroundResource(R.drawable.circular_image);
             }
         }
     }
@@ -0,0 +1,35 @@
+package com.example.pawfect.data;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.PersistentCacheSettings;
+
+/**
+ * The app's FirebaseFirestore instance, with an explicitly sized persistent cache.
+ *
+ * Settings only take effect before the instance is first used, so PawfectApp calls
+ * get() from onCreate and every screen goes through get() rather than getInstance().
+ */
+public final class FirestoreConfig {
+
+    // Several thousand pet documents plus queued writes; the SDK default is 100 MB
+    public static final long CACHE_SIZE_BYTES = 40L * 1024 * 1024;
+
+    private static FirebaseFirestore instance;
+
+    private FirestoreConfig() {
+    }
+
+    public static synchronized FirebaseFirestore get() {
+        if (instance == null) {
+            FirebaseFirestore db = FirebaseFirestore.getInstance();
+            db.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                    .setLocalCacheSettings(PersistentCacheSettings.newBuilder()
+                            .setSizeBytes(CACHE_SIZE_BYTES)
+                            .build())
+                    .build());
+            instance = db;
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetMapper;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PetRepository.RemoteSource backed by the pet summaries the list shows. Blocks, so
+ * call it off the main thread.
+ */
+public class FirestorePetSource implements PetRepository.RemoteSource {
+
+    private final FirebaseFirestore db;
+
+    public FirestorePetSource(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    @Override
+    public List<Pet> fetchUpdatedSince(long updatedAfter, int limit) throws Exception {
+        long start = System.nanoTime();
+        QuerySnapshot snapshot = Tasks.await(db.collection(PetSummaries.COLLECTION)
+                .whereGreaterThan("updatedAt", updatedAfter)
+                .orderBy("updatedAt")
+                .limit(limit)
+                .get());
+        QueryMetrics.record("pets updated since", snapshot.getMetadata().isFromCache(), snapshot.size(),
+                (System.nanoTime() - start) / 1_000_000);
+
+        List<Pet> pets = new ArrayList<>(snapshot.size());
+        for (QueryDocumentSnapshot document : snapshot) {
+            pets.add(PetMapper.fromMap(document.getId(), document.getData()));
+        }
+        return pets;
+    }
+}
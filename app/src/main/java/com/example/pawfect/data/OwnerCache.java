@@ -0,0 +1,167 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Owner;
+import com.example.pawfect.model.PetMapper;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide cache of the owners collection. Pets and summaries only hold an
+ * ownerId (see Owner.idOf), so an owner with many pets is stored and read once.
+ *
+ * prefetch() resolves the owners of a whole list together, with whereIn queries of
+ * at most MAX_IDS_PER_QUERY ids, skipping ids that are cached or already in flight.
+ * Ids the server has no document for are remembered as missing for MISSING_TTL_NANOS,
+ * so they are not asked for on every bind but do show up once the owner is written
+ * elsewhere. A miss served from the local cache (e.g. offline) proves nothing and is
+ * not remembered.
+ */
+public final class OwnerCache {
+
+    public interface Listener {
+        /**
+         * Called on the main thread with the ids of the owners just added to the cache
+         */
+        void onOwnersLoaded(Set<String> ownerIds);
+    }
+
+    public static final String COLLECTION = "owners";
+
+    // Firestore's limit for whereIn
+    static final int MAX_IDS_PER_QUERY = 30;
+    private static final int MAX_ENTRIES = 500;
+    private static final long MISSING_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private static OwnerCache instance;
+
+    private final FirebaseFirestore db;
+    private final Set<String> inFlight = new HashSet<>();
+    private final Map<String, Owner> owners = new LinkedHashMap<String, Owner>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Owner> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    // When each id was found missing on the server, by System.nanoTime()
+    private final Map<String, Long> missingSince = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    OwnerCache(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    public static synchronized OwnerCache shared() {
+        if (instance == null) {
+            instance = new OwnerCache(FirestoreConfig.get());
+        }
+        return instance;
+    }
+
+    /**
+     * The cached owner, or null when it is unknown, missing or not loaded yet
+     */
+    public synchronized Owner get(String ownerId) {
+        return ownerId != null ? owners.get(ownerId) : null;
+    }
+
+    public synchronized void put(String ownerId, Owner owner) {
+        if (ownerId == null) return;
+        if (owner != null) {
+            owners.put(ownerId, owner);
+            missingSince.remove(ownerId);
+        } else {
+            owners.remove(ownerId);
+        }
+    }
+
+    /**
+     * Whether ownerId is cached or was recently found missing on the server
+     */
+    private boolean isKnown(String ownerId) {
+        if (owners.containsKey(ownerId)) return true;
+        Long since = missingSince.get(ownerId);
+        if (since == null) return false;
+        if (System.nanoTime() - since < MISSING_TTL_NANOS) return true;
+        missingSince.remove(ownerId);
+        return false;
+    }
+
+    private void putMissing(String ownerId, boolean fromCache) {
+        owners.remove(ownerId);
+        if (!fromCache) {
+            missingSince.put(ownerId, System.nanoTime());
+        }
+    }
+
+    public void prefetch(Collection<String> ownerIds, Listener listener) {
+        List<String> missing = new ArrayList<>();
+        synchronized (this) {
+            for (String ownerId : ownerIds) {
+                if (ownerId != null && !isKnown(ownerId) && inFlight.add(ownerId)) {
+                    missing.add(ownerId);
+                }
+            }
+        }
+
+        for (List<String> ids : PetBulkOperations.chunk(missing, MAX_IDS_PER_QUERY)) {
+            long start = System.nanoTime();
+            db.collection(COLLECTION).whereIn(FieldPath.documentId(), ids).get()
+                    .addOnCompleteListener(task -> {
+                        Set<String> loaded = new HashSet<>();
+                        boolean fromCache;
+                        synchronized (this) {
+                            inFlight.removeAll(ids);
+                            if (!task.isSuccessful()) return;
+                            fromCache = task.getResult().getMetadata().isFromCache();
+                            for (DocumentSnapshot document : task.getResult()) {
+                                put(document.getId(), PetMapper.ownerFromMap(document.getData()));
+                                loaded.add(document.getId());
+                            }
+                            for (String ownerId : ids) {
+                                if (!loaded.contains(ownerId)) putMissing(ownerId, fromCache);
+                            }
+                        }
+                        QueryMetrics.record("owners", fromCache,
+                                loaded.size(), (System.nanoTime() - start) / 1_000_000);
+                        if (!loaded.isEmpty()) listener.onOwnersLoaded(loaded);
+                    });
+        }
+    }
+
+    /**
+     * One owner, from the cache when present
+     */
+    public Task<Owner> load(String ownerId) {
+        synchronized (this) {
+            if (isKnown(ownerId)) return Tasks.forResult(owners.get(ownerId));
+        }
+        return db.collection(COLLECTION).document(ownerId).get().continueWith(task -> {
+            DocumentSnapshot document = task.getResult();
+            Owner owner = PetMapper.ownerFromMap(document.getData());
+            synchronized (this) {
+                if (owner != null) {
+                    put(ownerId, owner);
+                } else {
+                    putMissing(ownerId, document.getMetadata().isFromCache());
+                }
+            }
+            return owner;
+        });
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetMapper;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deletes and imports many pets with WriteBatch, at most MAX_BATCH_SIZE operations
+ * per batch, instead of one request per pet. Each pet takes up to three operations,
+ * for its document, its summary and its owner, so a batch holds PETS_PER_BATCH pets.
+ *
+ * All batches are committed at once. Each one succeeds or fails as a whole, so the
+ * result lists exactly which pets were written and which were not. Firestore applies
+ * the writes locally straight away, so open page listeners update the list without
+ * a refetch.
+ */
+public class PetBulkOperations {
+
+    public static final int MAX_BATCH_SIZE = 500;
+    static final int PETS_PER_BATCH = MAX_BATCH_SIZE / 3;
+
+    public interface Listener {
+        /**
+         * Called on the main thread as batches complete
+         */
+        void onProgress(int done, int total);
+
+        void onComplete(Result result);
+    }
+
+    public static class Result {
+        public final List<String> succeededIds;
+        public final List<String> failedIds;
+        public final Exception firstError;
+
+        Result(List<String> succeededIds, List<String> failedIds, Exception firstError) {
+            this.succeededIds = Collections.unmodifiableList(succeededIds);
+            this.failedIds = Collections.unmodifiableList(failedIds);
+            this.firstError = firstError;
+        }
+
+        public boolean hasFailures() {
+            return !failedIds.isEmpty();
+        }
+    }
+
+    private final FirebaseFirestore db;
+
+    public PetBulkOperations(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    public void deleteAll(List<String> petIds, Listener listener) {
+        CollectionReference pets = db.collection("pets");
+        CollectionReference summaries = db.collection(PetSummaries.COLLECTION);
+        List<List<String>> chunks = chunk(petIds, PETS_PER_BATCH);
+        List<WriteBatch> batches = new ArrayList<>(chunks.size());
+        for (List<String> ids : chunks) {
+            WriteBatch batch = db.batch();
+            for (String id : ids) {
+                batch.delete(pets.document(id));
+                batch.delete(summaries.document(id));
+            }
+            batches.add(batch);
+        }
+        commitAll(batches, chunks, petIds.size(), listener);
+        for (String id : petIds) {
+            PetStore.remove(id);
+        }
+    }
+
+    /**
+     * Write new pets, assigning each a document id first
+     */
+    public void importAll(List<Pet> newPets, Listener listener) {
+        CollectionReference pets = db.collection("pets");
+        CollectionReference summaries = db.collection(PetSummaries.COLLECTION);
+        CollectionReference owners = db.collection(OwnerCache.COLLECTION);
+        long updatedAt = System.currentTimeMillis();
+        List<Pet> stamped = new ArrayList<>(newPets.size());
+        List<String> ids = new ArrayList<>(newPets.size());
+        for (Pet pet : newPets) {
+            Pet withId = PetWriter.assignId(db, pet).toBuilder().updatedAt(updatedAt).build();
+            stamped.add(withId);
+            ids.add(withId.getId());
+        }
+
+        List<List<Pet>> petChunks = chunk(stamped, PETS_PER_BATCH);
+        List<WriteBatch> batches = new ArrayList<>(petChunks.size());
+        for (List<Pet> chunk : petChunks) {
+            WriteBatch batch = db.batch();
+            Set<String> ownerIds = new HashSet<>();
+            for (Pet pet : chunk) {
+                batch.set(pets.document(pet.getId()), PetMapper.toMap(pet));
+                batch.set(summaries.document(pet.getId()), PetSummaries.of(pet));
+                // Owners with several pets in the file are written once per batch
+                String ownerId = pet.getOwnerId();
+                if (ownerId != null && pet.getOwner() != null && ownerIds.add(ownerId)) {
+                    batch.set(owners.document(ownerId), PetMapper.ownerToMap(pet.getOwner()), SetOptions.merge());
+                }
+            }
+            batches.add(batch);
+        }
+        commitAll(batches, chunk(ids, PETS_PER_BATCH), ids.size(), listener);
+    }
+
+    private void commitAll(List<WriteBatch> batches, List<List<String>> idChunks, int total, Listener listener) {
+        List<String> succeeded = new ArrayList<>(total);
+        List<String> failed = new ArrayList<>();
+        Exception[] firstError = new Exception[1];
+        int[] pending = {batches.size()};
+
+        if (batches.isEmpty()) {
+            listener.onComplete(new Result(succeeded, failed, null));
+            return;
+        }
+
+        // Listeners run on the main thread, so the shared state needs no locking
+        for (int i = 0; i < batches.size(); i++) {
+            List<String> ids = idChunks.get(i);
+            batches.get(i).commit()
+                    .addOnSuccessListener(result -> succeeded.addAll(ids))
+                    .addOnFailureListener(e -> {
+                        failed.addAll(ids);
+                        if (firstError[0] == null) firstError[0] = e;
+                    })
+                    .addOnCompleteListener(task -> {
+                        listener.onProgress(succeeded.size() + failed.size(), total);
+                        if (--pending[0] == 0) {
+                            listener.onComplete(new Result(succeeded, failed, firstError[0]));
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Split items into consecutive chunks of at most size items
+     */
+    static <T> List<List<T>> chunk(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>((items.size() + size - 1) / size);
+        for (int start = 0; start < items.size(); start += size) {
+            chunks.add(new ArrayList<>(items.subList(start, Math.min(start + size, items.size()))));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * On-disk snapshot of the last known pet list, stored with PetCodec.
+ *
+ * The list keeps its display order and is truncated to maxEntries on every write, so
+ * the pets furthest down the list are evicted first. Writes go to a temp file that is
+ * renamed over the cache, so a crash never leaves a half-written file behind.
+ */
+public class PetDiskCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 200;
+
+    private static final int MAGIC = 0x50455453; // "PETS"
+
+    private final File file;
+    private final int maxEntries;
+
+    public PetDiskCache(File file) {
+        this(file, DEFAULT_MAX_ENTRIES);
+    }
+
+    public PetDiskCache(File file, int maxEntries) {
+        this.file = file;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Read the cached pets, or an empty list when there is no usable cache
+     */
+    public List<Pet> read() {
+        if (!file.exists()) return Collections.emptyList();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != PetCodec.FORMAT_VERSION) {
+                return Collections.emptyList();
+            }
+            int count = in.readInt();
+            List<Pet> pets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                pets.add(PetCodec.read(in));
+            }
+            return pets;
+        } catch (IOException e) {
+            // Corrupt or truncated: behave as a cold cache
+            return Collections.emptyList();
+        }
+    }
+
+    public void write(List<Pet> pets) throws IOException {
+        int count = Math.min(pets.size(), maxEntries);
+        File temp = new File(file.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeByte(PetCodec.FORMAT_VERSION);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                PetCodec.write(pets.get(i), out);
+            }
+        }
+
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    public void clear() {
+        file.delete();
+    }
+}
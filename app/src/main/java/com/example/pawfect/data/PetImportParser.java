@@ -0,0 +1,231 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Owner;
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetAge;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses pets to import from a JSON or CSV file.
+ *
+ * JSON is an array of pet objects (or an object with a "pets" array) using the same
+ * field names as Firestore; the owner may be nested or given as ownerName, ownerEmail
+ * and ownerPhone. CSV has a header row with those flat column names, and photoUrls
+ * separated by ';'. Ages are read with PetAge. Invalid entries are skipped and
+ * reported, not fatal.
+ */
+public final class PetImportParser {
+
+    public static class Result {
+        public final List<Pet> pets;
+        public final List<String> errors;
+
+        Result(List<Pet> pets, List<String> errors) {
+            this.pets = Collections.unmodifiableList(pets);
+            this.errors = Collections.unmodifiableList(errors);
+        }
+    }
+
+    private static final String[] COLUMNS = {
+            "name", "description", "type", "age", "race", "ownerName", "ownerEmail", "ownerPhone", "photoUrls"};
+
+    private PetImportParser() {
+    }
+
+    /**
+     * Parse content as JSON when it looks like JSON (or fileName ends in .json), else CSV
+     */
+    public static Result parse(String content, String fileName) {
+        String trimmed = content.trim();
+        boolean json = (fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".json"))
+                || trimmed.startsWith("[") || trimmed.startsWith("{");
+        return json ? parseJson(trimmed) : parseCsv(content);
+    }
+
+    static Result parseJson(String content) {
+        List<Pet> pets = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+
+        JSONArray array;
+        try {
+            array = content.startsWith("{") ? new JSONObject(content).getJSONArray("pets") : new JSONArray(content);
+        } catch (JSONException e) {
+            errors.add("Invalid JSON: " + e.getMessage());
+            return new Result(pets, errors);
+        }
+
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject item = array.optJSONObject(i);
+            if (item == null) {
+                errors.add("Entry " + (i + 1) + ": not an object");
+                continue;
+            }
+
+            Map<String, String> fields = new HashMap<>();
+            for (String column : COLUMNS) {
+                fields.put(column, optString(item, column));
+            }
+            JSONObject owner = item.optJSONObject("owner");
+            if (owner != null) {
+                fields.put("ownerName", optString(owner, "name"));
+                fields.put("ownerEmail", optString(owner, "email"));
+                fields.put("ownerPhone", optString(owner, "phone"));
+            }
+
+            List<String> photoUrls = new ArrayList<>();
+            JSONArray photos = item.optJSONArray("photoUrls");
+            if (photos != null) {
+                for (int p = 0; p < photos.length(); p++) {
+                    String url = photos.optString(p, "").trim();
+                    if (!url.isEmpty()) photoUrls.add(url);
+                }
+            } else {
+                photoUrls = splitPhotoUrls(fields.get("photoUrls"));
+            }
+
+            addPet(fields, photoUrls, "Entry " + (i + 1), pets, errors);
+        }
+        return new Result(pets, errors);
+    }
+
+    static Result parseCsv(String content) {
+        List<Pet> pets = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+
+        List<List<String>> records = readCsv(content);
+        if (records.isEmpty()) {
+            errors.add("Empty file");
+            return new Result(pets, errors);
+        }
+
+        // Map each known column to its index in the header
+        List<String> header = records.get(0);
+        Map<String, Integer> columnIndex = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            for (String column : COLUMNS) {
+                if (column.equalsIgnoreCase(header.get(i).trim())) {
+                    columnIndex.put(column, i);
+                }
+            }
+        }
+        if (!columnIndex.containsKey("name") || !columnIndex.containsKey("type")) {
+            errors.add("Header must have at least name and type columns");
+            return new Result(pets, errors);
+        }
+
+        for (int r = 1; r < records.size(); r++) {
+            List<String> record = records.get(r);
+            if (record.size() == 1 && record.get(0).trim().isEmpty()) continue;
+
+            Map<String, String> fields = new HashMap<>();
+            for (Map.Entry<String, Integer> column : columnIndex.entrySet()) {
+                int index = column.getValue();
+                fields.put(column.getKey(), index < record.size() ? record.get(index).trim() : "");
+            }
+            addPet(fields, splitPhotoUrls(fields.get("photoUrls")), "Row " + (r + 1), pets, errors);
+        }
+        return new Result(pets, errors);
+    }
+
+    private static void addPet(Map<String, String> fields, List<String> photoUrls, String where,
+                               List<Pet> pets, List<String> errors) {
+        String name = fields.get("name");
+        String type = fields.get("type");
+        if (isBlank(name) || isBlank(type)) {
+            errors.add(where + ": name and type are required");
+            return;
+        }
+
+        Owner owner = null;
+        if (!isBlank(fields.get("ownerName")) || !isBlank(fields.get("ownerEmail")) || !isBlank(fields.get("ownerPhone"))) {
+            owner = new Owner(fields.get("ownerName"), fields.get("ownerEmail"), fields.get("ownerPhone"));
+        }
+        String age = fields.get("age");
+        int ageMonths = PetAge.parse(age);
+        if (ageMonths == PetAge.UNKNOWN && !isBlank(age)) {
+            errors.add(where + ": unrecognised age \"" + age + "\"");
+            return;
+        }
+        pets.add(Pet.builder()
+                .name(name)
+                .description(fields.get("description"))
+                .type(type)
+                .ageMonths(ageMonths)
+                .race(fields.get("race"))
+                .owner(owner)
+                .photoUrls(photoUrls)
+                .build());
+    }
+
+    /**
+     * Split CSV text into records, honouring quoted fields with commas, doubled quotes
+     * and line breaks
+     */
+    static List<List<String>> readCsv(String content) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < content.length() && content.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < content.length() && content.charAt(i + 1) == '\n') i++;
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+            } else {
+                field.append(c);
+            }
+        }
+        if (field.length() > 0 || !record.isEmpty()) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static List<String> splitPhotoUrls(String value) {
+        List<String> urls = new ArrayList<>();
+        if (isBlank(value)) return urls;
+        for (String url : Arrays.asList(value.split(";"))) {
+            if (!url.trim().isEmpty()) urls.add(url.trim());
+        }
+        return urls;
+    }
+
+    private static String optString(JSONObject object, String key) {
+        // optString would turn a JSON null into "null"
+        return object.isNull(key) ? "" : object.optString(key, "").trim();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
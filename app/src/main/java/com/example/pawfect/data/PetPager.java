@@ -0,0 +1,499 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetMapper;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cursor-based pager over a pets query.
+ *
+ * Pages are fetched with startAfter/endAt cursors ordered by document id, so the
+ * first page costs the same no matter how big the collection is. Only the last
+ * maxResidentPages pages are kept in memory; trimmed pages are fetched again when the
+ * user scrolls back towards them.
+ *
+ * Every resident page is a live snapshot listener: added, modified and removed
+ * documents are applied to that page in place, so coming back to the list or editing
+ * a pet never re-reads the collection. Call stop() to detach the listeners.
+ *
+ * Neighbouring pages share a boundary: a page covers the ids after its after cursor
+ * up to and including its end cursor. Only the page at each edge of the resident
+ * window is limited to pageSize; once a page is loaded next to it, the edge page is
+ * listened to again over its fixed range. Adding or deleting a pet then changes only
+ * the page whose range holds it, instead of shifting pets across page boundaries.
+ *
+ * Reads are cache-first: a page is shown from the persistent cache as soon as the
+ * listener answers from it, and the server snapshot follows as a normal update.
+ * refreshFromServer() is for an explicit refresh and waits for the server instead.
+ * Pets with local writes not yet acknowledged are reported through
+ * onPendingWritesChanged so they can be shown optimistically as syncing.
+ */
+public class PetPager {
+
+    public interface Listener {
+        void onPetsChanged(List<Pet> pets);
+        void onError(Exception e);
+
+        /**
+         * Ids of the resident pets that have local writes the server has not confirmed
+         */
+        default void onPendingWritesChanged(Set<String> petIds) {
+        }
+    }
+
+    static final String QUERY_LABEL = "pets page";
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int DEFAULT_MAX_RESIDENT_PAGES = 5;
+
+    private static class Page {
+        final List<Pet> pets = new ArrayList<>();
+        DocumentSnapshot first;
+        DocumentSnapshot last;
+        // Range listened to: ids after after (none when null) up to and including end.
+        // A null end is the open-ended last page, limited to pageSize.
+        DocumentSnapshot after;
+        DocumentSnapshot end;
+        // Loaded backwards: limited to the last pageSize ids up to end
+        boolean fromEnd;
+        // The next snapshot is the first of a new listener and replaces pets
+        boolean replacing;
+        // Whether the server was asked if it can answer a page missing from the cache
+        boolean serverChecked;
+        ListenerRegistration registration;
+        final Set<String> pendingIds = new HashSet<>();
+        final long startNanos = System.nanoTime();
+        boolean cacheResultRecorded;
+        boolean serverResultRecorded;
+    }
+
+    private Query baseQuery;
+    private final int pageSize;
+    private final int maxResidentPages;
+    private final Listener listener;
+    private final ArrayList<Page> pages = new ArrayList<>();
+
+    private boolean loading = false;
+    private boolean reachedEnd = false;
+    private boolean trimming = true;
+    private int pagesDroppedBefore = 0;
+    private int generation = 0;
+    private Page pendingPage;
+    private Set<String> deliveredPendingIds = Collections.emptySet();
+
+    public PetPager(Query query, Listener listener) {
+        this(query, DEFAULT_PAGE_SIZE, DEFAULT_MAX_RESIDENT_PAGES, listener);
+    }
+
+    public PetPager(Query query, int pageSize, int maxResidentPages, Listener listener) {
+        this.baseQuery = query.orderBy(FieldPath.documentId());
+        this.pageSize = pageSize;
+        this.maxResidentPages = maxResidentPages;
+        this.listener = listener;
+    }
+
+    /**
+     * Page over a different query, e.g. after a filter change
+     */
+    public void setQuery(Query query) {
+        baseQuery = query.orderBy(FieldPath.documentId());
+        refresh();
+    }
+
+    /**
+     * Drop every resident page and fetch the first one again, cache first
+     */
+    public void refresh() {
+        stop();
+        loading = false;
+        reachedEnd = false;
+        pagesDroppedBefore = 0;
+        Page page = new Page();
+        fetch(page, pageQuery(page));
+    }
+
+    /**
+     * Explicit refresh: read the first page from the server, then listen as refresh()
+     * does, now answered by the freshly updated cache. If the server cannot be reached
+     * the error is reported and the cached pets are shown anyway.
+     */
+    public void refreshFromServer() {
+        stop();
+        loading = true;
+        reachedEnd = false;
+        pagesDroppedBefore = 0;
+        final int requestGeneration = generation;
+        final long startNanos = System.nanoTime();
+        baseQuery.limit(pageSize).get(Source.SERVER).addOnCompleteListener(task -> {
+            if (requestGeneration != generation) return;
+            if (task.isSuccessful()) {
+                QueryMetrics.record(QUERY_LABEL + " (refresh)", false, task.getResult().size(), elapsedMs(startNanos));
+            } else {
+                listener.onError(task.getException());
+            }
+            Page page = new Page();
+            fetch(page, pageQuery(page));
+        });
+    }
+
+    public void loadNextPage() {
+        if (loading || reachedEnd || pages.isEmpty()) return;
+        Page lastPage = pages.get(pages.size() - 1);
+        Page page = new Page();
+        if (lastPage.end != null) {
+            page.after = lastPage.end;
+        } else {
+            // A short last page is still waiting for the server to fill it or end the list
+            if (lastPage.pets.size() < pageSize) return;
+            page.after = lastPage.last;
+        }
+        fetch(page, pageQuery(page));
+    }
+
+    public void loadPreviousPage() {
+        if (loading || !hasMoreBefore() || pages.isEmpty()) return;
+        Page firstPage = pages.get(0);
+        Page page = new Page();
+        page.fromEnd = true;
+        if (firstPage.after != null) {
+            page.end = firstPage.after;
+            fetch(page, pageQuery(page));
+        } else {
+            // firstPage was loaded backwards too; the boundary is fixed once this page arrives
+            fetch(page, baseQuery.endBefore(firstPage.first).limitToLast(pageSize));
+        }
+    }
+
+    /**
+     * While false every loaded page stays resident, e.g. while the list is searched
+     * locally, so earlier matches are not dropped. Pages beyond maxResidentPages are
+     * trimmed again on the next load after it is turned back on.
+     */
+    public void setTrimming(boolean trimming) {
+        this.trimming = trimming;
+    }
+
+    public boolean hasMoreAfter() {
+        return !reachedEnd;
+    }
+
+    public boolean hasMoreBefore() {
+        return pagesDroppedBefore > 0;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * Detach every page listener; resident pets are dropped
+     */
+    public void stop() {
+        generation++;
+        for (Page page : pages) {
+            page.registration.remove();
+        }
+        pages.clear();
+        if (pendingPage != null) {
+            pendingPage.registration.remove();
+            pendingPage = null;
+        }
+        if (!deliveredPendingIds.isEmpty()) {
+            deliveredPendingIds = Collections.emptySet();
+            listener.onPendingWritesChanged(deliveredPendingIds);
+        }
+    }
+
+    private void fetch(Page page, Query query) {
+        loading = true;
+        pendingPage = page;
+        listen(page, query);
+    }
+
+    /**
+     * Listen to page over its own range rather than the query it was loaded with; the
+     * first snapshot of the new listener replaces the page's pets
+     */
+    private void rebind(Page page) {
+        page.registration.remove();
+        page.replacing = true;
+        listen(page, pageQuery(page));
+    }
+
+    private Query pageQuery(Page page) {
+        Query query = baseQuery;
+        if (page.after != null) {
+            query = query.startAfter(page.after);
+        }
+        if (page.end == null) return query.limit(pageSize);
+        query = query.endAt(page.end);
+        return page.fromEnd ? query.limitToLast(pageSize) : query;
+    }
+
+    private void listen(Page page, Query query) {
+        final int requestGeneration = generation;
+
+        // Metadata changes tell when cached results and pending writes reach the server
+        page.registration = query.addSnapshotListener(MetadataChanges.INCLUDE, (snapshot, e) -> {
+            // A refresh happened while this page was in flight
+            if (requestGeneration != generation) return;
+
+            if (e != null) {
+                if (page == pendingPage) {
+                    pendingPage = null;
+                    loading = false;
+                }
+                listener.onError(e);
+                return;
+            }
+
+            recordResult(page, snapshot);
+            updatePendingIds(page, snapshot);
+            boolean fromCache = snapshot.getMetadata().isFromCache();
+
+            if (page == pendingPage) {
+                if (fromCache && snapshot.isEmpty()) {
+                    // The cache may just not hold this page yet. Deliver nothing until the
+                    // server answers: an empty first load would replace the disk cache
+                    // and show the empty state.
+                    if (pages.isEmpty() && !page.fromEnd && !page.serverChecked) {
+                        page.serverChecked = true;
+                        checkServerReachable(page, query, requestGeneration);
+                    }
+                    return;
+                }
+                pendingPage = null;
+                loading = false;
+                attachPage(page, snapshot);
+            } else if (page.replacing) {
+                page.replacing = false;
+                replacePets(page, snapshot);
+                updateReachedEnd(page, snapshot);
+            } else if (!snapshot.getDocumentChanges().isEmpty()) {
+                applyChanges(page, snapshot);
+                updateReachedEnd(page, snapshot);
+            } else {
+                updateReachedEnd(page, snapshot);
+                // Only metadata changed, e.g. a write was acknowledged
+                deliverPendingIds();
+                return;
+            }
+            listener.onPetsChanged(snapshotPets());
+            deliverPendingIds();
+        });
+    }
+
+    /**
+     * A listener sends nothing after its cached snapshot while offline, so a first page
+     * missing from the cache would wait for ever. A server read tells whether an answer
+     * is coming; when it fails the error is reported, so the screen can stop waiting,
+     * and the page stays pending in case the connection comes back.
+     */
+    private void checkServerReachable(Page page, Query query, int requestGeneration) {
+        query.get(Source.SERVER).addOnFailureListener(e -> {
+            if (requestGeneration != generation || page != pendingPage) return;
+            listener.onError(e);
+        });
+    }
+
+    /**
+     * Record the first cache and the first server result of each page
+     */
+    private static void recordResult(Page page, QuerySnapshot snapshot) {
+        boolean fromCache = snapshot.getMetadata().isFromCache();
+        if (fromCache ? page.cacheResultRecorded : page.serverResultRecorded) return;
+        if (fromCache) {
+            page.cacheResultRecorded = true;
+        } else {
+            page.serverResultRecorded = true;
+        }
+        QueryMetrics.record(QUERY_LABEL, fromCache, snapshot.size(), elapsedMs(page.startNanos));
+    }
+
+    /**
+     * A short cached last page may only be part of what the server has, so the end is
+     * decided by the server's answer. A page with an end cursor cannot tell.
+     */
+    private void updateReachedEnd(Page page, QuerySnapshot snapshot) {
+        if (page.end != null || snapshot.getMetadata().isFromCache() || pages.isEmpty()
+                || pages.get(pages.size() - 1) != page) {
+            return;
+        }
+        reachedEnd = snapshot.size() < pageSize;
+    }
+
+    private static void updatePendingIds(Page page, QuerySnapshot snapshot) {
+        page.pendingIds.clear();
+        if (!snapshot.getMetadata().hasPendingWrites()) return;
+        for (QueryDocumentSnapshot document : snapshot) {
+            if (document.getMetadata().hasPendingWrites()) {
+                page.pendingIds.add(document.getId());
+            }
+        }
+    }
+
+    private void deliverPendingIds() {
+        Set<String> pendingIds = new HashSet<>();
+        for (Page page : pages) {
+            pendingIds.addAll(page.pendingIds);
+        }
+        if (pendingIds.equals(deliveredPendingIds)) return;
+        deliveredPendingIds = Collections.unmodifiableSet(pendingIds);
+        listener.onPendingWritesChanged(deliveredPendingIds);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private void attachPage(Page page, QuerySnapshot snapshot) {
+        boolean prepend = page.fromEnd;
+        List<DocumentSnapshot> documents = snapshot.getDocuments();
+        if (documents.isEmpty()) {
+            if (prepend) {
+                page.registration.remove();
+                pagesDroppedBefore = 0;
+            } else if (pages.isEmpty()) {
+                // An empty list: keep listening so pets added later, e.g. by an import,
+                // still show up
+                pages.add(page);
+                reachedEnd = true;
+            } else {
+                page.registration.remove();
+                reachedEnd = true;
+            }
+            return;
+        }
+
+        for (QueryDocumentSnapshot document : snapshot) {
+            page.pets.add(toPet(document));
+        }
+        page.first = documents.get(0);
+        page.last = documents.get(documents.size() - 1);
+
+        if (prepend) {
+            Page next = pages.isEmpty() ? null : pages.get(0);
+            pages.add(0, page);
+            pagesDroppedBefore = Math.max(0, pagesDroppedBefore - 1);
+            boolean rebindPage = false;
+            if (next != null && next.fromEnd) {
+                // Both pages were loaded backwards: fix their boundary at this page's last pet
+                next.after = page.last;
+                next.fromEnd = false;
+                rebind(next);
+                page.end = page.last;
+                rebindPage = true;
+            }
+            if (documents.size() < pageSize && !snapshot.getMetadata().isFromCache()) {
+                // Nothing comes before this page, so it no longer needs the limit
+                page.fromEnd = false;
+                pagesDroppedBefore = 0;
+                rebindPage = true;
+            }
+            if (rebindPage) {
+                rebind(page);
+            }
+            while (trimming && pages.size() > maxResidentPages) {
+                pages.remove(pages.size() - 1).registration.remove();
+                reachedEnd = false;
+            }
+        } else {
+            Page previous = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+            pages.add(page);
+            if (previous != null && previous.end == null) {
+                // Stop the previous page at the pet this one starts after
+                previous.end = page.after;
+                rebind(previous);
+            }
+            if (documents.size() < pageSize && !snapshot.getMetadata().isFromCache()) {
+                reachedEnd = true;
+            }
+            while (trimming && pages.size() > maxResidentPages) {
+                pages.remove(0).registration.remove();
+                pagesDroppedBefore++;
+            }
+        }
+    }
+
+    /**
+     * Apply a later snapshot of an attached page in place, touching only changed documents
+     */
+    private void applyChanges(Page page, QuerySnapshot snapshot) {
+        for (DocumentChange change : snapshot.getDocumentChanges()) {
+            switch (change.getType()) {
+                case ADDED:
+                    page.pets.add(change.getNewIndex(), toPet(change.getDocument()));
+                    break;
+                case MODIFIED:
+                    page.pets.remove(change.getOldIndex());
+                    page.pets.add(change.getNewIndex(), toPet(change.getDocument()));
+                    break;
+                case REMOVED:
+                    page.pets.remove(change.getOldIndex());
+                    break;
+            }
+        }
+        updateCursors(page, snapshot);
+    }
+
+    /**
+     * Take the pets of the first snapshot after a rebind, keeping the instances of
+     * unchanged pets so the search index does not re-tokenise them
+     */
+    private void replacePets(Page page, QuerySnapshot snapshot) {
+        Map<String, Pet> previous = new HashMap<>();
+        for (Pet pet : page.pets) {
+            previous.put(pet.getId(), pet);
+        }
+        page.pets.clear();
+        for (QueryDocumentSnapshot document : snapshot) {
+            Pet pet = toPet(document);
+            Pet old = previous.get(pet.getId());
+            page.pets.add(pet.equals(old) ? old : pet);
+        }
+        updateCursors(page, snapshot);
+    }
+
+    private static void updateCursors(Page page, QuerySnapshot snapshot) {
+        // Keep the cursors of an emptied page so its neighbours can still be paged to
+        List<DocumentSnapshot> documents = snapshot.getDocuments();
+        if (!documents.isEmpty()) {
+            page.first = documents.get(0);
+            page.last = documents.get(documents.size() - 1);
+        }
+    }
+
+    private static Pet toPet(QueryDocumentSnapshot document) {
+        return PetMapper.fromMap(document.getId(), document.getData());
+    }
+
+    private List<Pet> snapshotPets() {
+        List<Pet> pets = new ArrayList<>();
+        // Pages do not overlap, but a pet can briefly be in two while a page is rebound
+        Set<String> ids = new HashSet<>();
+        for (Page page : pages) {
+            for (Pet pet : page.pets) {
+                if (ids.add(pet.getId())) {
+                    pets.add(pet);
+                }
+            }
+        }
+        return pets;
+    }
+}
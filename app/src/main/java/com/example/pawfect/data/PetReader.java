@@ -0,0 +1,43 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetMapper;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+/**
+ * Reads one full pet document. The list only holds summaries (see PetSummaries), so
+ * screens that show or edit every field load the pet with this first.
+ */
+public final class PetReader {
+
+    private PetReader() {
+    }
+
+    /**
+     * The full pet with its owner resolved through OwnerCache, or null when it no
+     * longer exists. Falls back to the cache when the server cannot be reached.
+     */
+    public static Task<Pet> get(FirebaseFirestore db, String petId) {
+        long start = System.nanoTime();
+        return db.collection("pets").document(petId).get().continueWith(task -> {
+            DocumentSnapshot document = task.getResult();
+            QueryMetrics.record("pet by id", document.getMetadata().isFromCache(), document.exists() ? 1 : 0,
+                    (System.nanoTime() - start) / 1_000_000);
+            // Null data for a missing document maps to a null pet
+            return PetMapper.fromMap(document.getId(), document.getData());
+        }).continueWithTask(task -> {
+            Pet pet = task.getResult();
+            if (pet == null || pet.getOwner() != null || pet.getOwnerId() == null) return Tasks.forResult(pet);
+            // The pet is still worth showing if its owner cannot be read
+            return OwnerCache.shared().load(pet.getOwnerId()).continueWith(ownerTask -> {
+                if (ownerTask.isSuccessful() && ownerTask.getResult() != null) {
+                    return pet.toBuilder().owner(ownerTask.getResult()).build();
+                }
+                return pet;
+            });
+        });
+    }
+}
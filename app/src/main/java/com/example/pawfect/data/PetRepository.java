@@ -0,0 +1,159 @@
+package com.example.pawfect.data;
+
+import android.content.Context;
+
+import com.example.pawfect.model.Pet;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Stale-while-revalidate access to the pet list.
+ *
+ * load() hands back the last list saved to disk straight away, then asks the remote
+ * source only for pets written since the newest cached updatedAt and delivers the
+ * merged list. That cannot see deletions; the live pager stays the source of truth
+ * once it answers, and save() lets its pets replace the range of the cache they
+ * cover, so pets deleted elsewhere drop out of it. Like the pager's, lists are in
+ * document id order.
+ */
+public class PetRepository {
+
+    public interface RemoteSource {
+        /**
+         * Pets whose updatedAt is after the given epoch millis, at most limit of them
+         */
+        List<Pet> fetchUpdatedSince(long updatedAfter, int limit) throws Exception;
+    }
+
+    public interface Callback {
+        void onPets(List<Pet> pets, boolean fromCache);
+        void onError(Exception e);
+    }
+
+    static final int MAX_CHANGES = 100;
+
+    // Document ids are ASCII, so this is Firestore's document id order
+    private static final Comparator<Pet> BY_ID = Comparator.comparing(Pet::getId);
+
+    // Shared so cache writes queued by one screen are not lost when it is destroyed
+    private static final Executor SHARED_IO = Executors.newSingleThreadExecutor();
+
+    private final PetDiskCache cache;
+    private final RemoteSource remote;
+    private final Executor ioExecutor;
+    private final Executor mainExecutor;
+
+    public PetRepository(PetDiskCache cache, RemoteSource remote, Executor ioExecutor, Executor mainExecutor) {
+        this.cache = cache;
+        this.remote = remote;
+        this.ioExecutor = ioExecutor;
+        this.mainExecutor = mainExecutor;
+    }
+
+    public static PetRepository create(Context context, FirebaseFirestore db) {
+        PetDiskCache cache = new PetDiskCache(new File(context.getFilesDir(), "pets.cache"));
+        return new PetRepository(cache, new FirestorePetSource(db), SHARED_IO, context.getMainExecutor());
+    }
+
+    public void load(Callback callback) {
+        ioExecutor.execute(() -> {
+            List<Pet> cached = cache.read();
+            // Nothing to revalidate on a cold cache; the pager loads the first page
+            if (cached.isEmpty()) return;
+            mainExecutor.execute(() -> callback.onPets(cached, true));
+
+            try {
+                List<Pet> changed = remote.fetchUpdatedSince(newestUpdate(cached), MAX_CHANGES);
+                if (changed.isEmpty()) return;
+
+                List<Pet> merged = merge(cached, changed);
+                cache.write(merged);
+                mainExecutor.execute(() -> callback.onPets(merged, false));
+            } catch (Exception e) {
+                mainExecutor.execute(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Remember the pets currently on screen for the next cold start. pets are the
+     * start of the list; cached pets after them are kept unless toEnd says pets run
+     * to the end of the list.
+     */
+    public void save(List<Pet> pets, boolean toEnd) {
+        final List<Pet> snapshot = new ArrayList<>(pets);
+        ioExecutor.execute(() -> {
+            try {
+                cache.write(replaceRange(cache.read(), snapshot, toEnd));
+            } catch (IOException e) {
+                // Best effort: a failed write only costs the next warm start
+                cache.clear();
+            }
+        });
+    }
+
+    static long newestUpdate(List<Pet> pets) {
+        long newest = 0;
+        for (Pet pet : pets) {
+            newest = Math.max(newest, pet.getUpdatedAt());
+        }
+        return newest;
+    }
+
+    /**
+     * pets followed by the cached pets after the last of them, or just pets when toEnd
+     */
+    static List<Pet> replaceRange(List<Pet> cached, List<Pet> pets, boolean toEnd) {
+        if (toEnd) return pets;
+        if (pets.isEmpty()) return cached;
+
+        List<Pet> replaced = new ArrayList<>(pets);
+        String lastId = pets.get(pets.size() - 1).getId();
+        for (Pet pet : cached) {
+            if (pet.getId().compareTo(lastId) > 0) {
+                replaced.add(pet);
+            }
+        }
+        return replaced;
+    }
+
+    /**
+     * Replace cached pets with their changed versions in place, and insert the pets the
+     * cache did not know about at their place in id order
+     */
+    static List<Pet> merge(List<Pet> cached, List<Pet> changed) {
+        Map<String, Pet> changedById = new HashMap<>();
+        for (Pet pet : changed) {
+            changedById.put(pet.getId(), pet);
+        }
+
+        List<Pet> replaced = new ArrayList<>(cached.size());
+        for (Pet pet : cached) {
+            Pet update = changedById.remove(pet.getId());
+            replaced.add(update != null ? update : pet);
+        }
+        List<Pet> added = new ArrayList<>(changedById.values());
+        added.sort(BY_ID);
+
+        List<Pet> merged = new ArrayList<>(replaced.size() + added.size());
+        int i = 0;
+        int j = 0;
+        while (i < replaced.size() || j < added.size()) {
+            if (j == added.size() || (i < replaced.size() && BY_ID.compare(replaced.get(i), added.get(j)) < 0)) {
+                merged.add(replaced.get(i++));
+            } else {
+                merged.add(added.get(j++));
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.pawfect.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetAge;
+import com.example.pawfect.model.PetMapper;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Backfills fields that queries depend on into pet documents written by older versions.
+ *
+ * Version 1 adds typeKey, the normalised type the Dog/Cat chips filter on server-side.
+ * Version 2 writes the pet_summaries document the list reads for every pet.
+ * Version 3 moves embedded owners into the owners collection, leaving an ownerId.
+ * Version 4 adds ageMonths, parsed from the free-form age text.
+ * The completed version is recorded both locally and in the meta/schema document, so
+ * the collection is scanned once overall rather than once per device.
+ */
+public class PetSchemaMigration {
+
+    public static final int CURRENT_VERSION = 4;
+
+    private static final String TAG = "PetSchemaMigration";
+    private static final String PREFS = "pet_schema";
+    private static final String KEY_VERSION = "version";
+    // Up to three writes per pet, within Firestore's 500 writes per batch
+    private static final int BATCH_SIZE = 160;
+
+    private final FirebaseFirestore db;
+    private final SharedPreferences prefs;
+
+    public PetSchemaMigration(Context context, FirebaseFirestore db) {
+        this.db = db;
+        this.prefs = context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    public void runIfNeeded() {
+        if (prefs.getInt(KEY_VERSION, 0) >= CURRENT_VERSION) return;
+
+        db.collection("meta").document("schema").get()
+                .addOnSuccessListener(schema -> {
+                    Long remoteVersion = schema.getLong(KEY_VERSION);
+                    if (remoteVersion != null && remoteVersion >= CURRENT_VERSION) {
+                        markDone();
+                    } else {
+                        migrateFrom(null);
+                    }
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Could not read schema version", e));
+    }
+
+    /**
+     * Rewrite one page of pets, then continue after its last document
+     */
+    private void migrateFrom(DocumentSnapshot cursor) {
+        Query query = db.collection("pets").orderBy(FieldPath.documentId()).limit(BATCH_SIZE);
+        if (cursor != null) {
+            query = query.startAfter(cursor);
+        }
+
+        query.get()
+                .addOnSuccessListener(snapshot -> {
+                    List<DocumentSnapshot> documents = snapshot.getDocuments();
+                    WriteBatch batch = db.batch();
+                    int updates = 0;
+                    for (DocumentSnapshot document : documents) {
+                        // Reads an embedded owner too and derives its ownerId
+                        Pet pet = PetMapper.fromMap(document.getId(), document.getData());
+                        Map<String, Object> fields = new HashMap<>();
+
+                        String typeKey = Pet.normalizeType(document.getString("type"));
+                        if (!Objects.equals(typeKey, document.getString("typeKey"))) {
+                            fields.put("typeKey", typeKey);
+                        }
+
+                        if (!document.contains("ageMonths") && pet.getAgeMonths() != PetAge.UNKNOWN) {
+                            fields.put("ageMonths", pet.getAgeMonths());
+                        }
+
+                        if (document.contains("owner")) {
+                            if (pet.getOwnerId() != null) {
+                                batch.set(db.collection(OwnerCache.COLLECTION).document(pet.getOwnerId()),
+                                        PetMapper.ownerToMap(pet.getOwner()), SetOptions.merge());
+                            }
+                            fields.put("ownerId", pet.getOwnerId());
+                            fields.put("owner", FieldValue.delete());
+                        }
+
+                        if (!fields.isEmpty()) {
+                            batch.update(document.getReference(), fields);
+                            updates++;
+                        }
+                        batch.set(db.collection(PetSummaries.COLLECTION).document(document.getId()), PetSummaries.of(pet));
+                    }
+
+                    boolean lastPage = documents.size() < BATCH_SIZE;
+                    DocumentSnapshot next = lastPage ? null : documents.get(documents.size() - 1);
+                    Log.d(TAG, "Updating " + updates + " and writing summaries of " + documents.size() + " pets");
+
+                    batch.commit()
+                            .addOnSuccessListener(aVoid -> {
+                                if (lastPage) {
+                                    finish();
+                                } else {
+                                    migrateFrom(next);
+                                }
+                            })
+                            .addOnFailureListener(e -> Log.w(TAG, "Migration batch failed", e));
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Could not read pets for migration", e));
+    }
+
+    private void finish() {
+        db.collection("meta").document("schema")
+                .set(Collections.singletonMap(KEY_VERSION, CURRENT_VERSION), SetOptions.merge())
+                .addOnSuccessListener(aVoid -> markDone())
+                .addOnFailureListener(e -> Log.w(TAG, "Could not record schema version", e));
+    }
+
+    private void markDone() {
+        prefs.edit().putInt(KEY_VERSION, CURRENT_VERSION).apply();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.pawfect.data;
+
+import android.content.Intent;
+import android.util.Log;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetCodec;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide store of recently shown pets, so screens can hand each other a pet id
+ * instead of serializing the whole Pet into an Intent.
+ *
+ * The Intent also carries the PetCodec bytes of the pet, which are only decoded when
+ * the process was killed in between and the store is empty.
+ */
+public final class PetStore {
+
+    public static final String EXTRA_PET_ID = "petId";
+    public static final String EXTRA_PET_BYTES = "petBytes";
+
+    private static final String TAG = "PetStore";
+    private static final int MAX_ENTRIES = 64;
+
+    private static final Map<String, Pet> pets = new LinkedHashMap<String, Pet>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pet> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private PetStore() {
+    }
+
+    public static synchronized void put(Pet pet) {
+        if (pet.getId() != null) {
+            pets.put(pet.getId(), pet);
+        }
+    }
+
+    public static synchronized Pet get(String petId) {
+        return petId != null ? pets.get(petId) : null;
+    }
+
+    public static synchronized void remove(String petId) {
+        pets.remove(petId);
+    }
+
+    public static void putExtra(Intent intent, Pet pet) {
+        put(pet);
+        intent.putExtra(EXTRA_PET_ID, pet.getId());
+        intent.putExtra(EXTRA_PET_BYTES, PetCodec.encode(pet));
+    }
+
+    /**
+     * Resolve the pet passed with putExtra, or null when the Intent carries none
+     */
+    public static Pet fromIntent(Intent intent) {
+        Pet pet = get(intent.getStringExtra(EXTRA_PET_ID));
+        if (pet != null) return pet;
+
+        byte[] bytes = intent.getByteArrayExtra(EXTRA_PET_BYTES);
+        if (bytes == null) return null;
+        try {
+            pet = PetCodec.decode(bytes);
+            put(pet);
+            return pet;
+        } catch (IOException e) {
+            Log.e(TAG, "Could not decode pet extra", e);
+            return null;
+        }
+    }
+}
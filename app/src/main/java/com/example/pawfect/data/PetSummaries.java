@@ -0,0 +1,51 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetMapper;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The pet_summaries collection: one small document per pet, under the same id, with
+ * only what a list card shows. The list pages over summaries and screens that need
+ * the whole pet read it from pets by id.
+ *
+ * Summaries have the pet document's fields, so they map onto Pet the same way, but
+ * the description is cut to an excerpt and only the first photo URL is kept.
+ * PetWriter and PetBulkOperations write both documents in the same batch or
+ * transaction.
+ */
+public final class PetSummaries {
+
+    public static final String COLLECTION = "pet_summaries";
+
+    static final int DESCRIPTION_EXCERPT_LENGTH = 120;
+
+    private PetSummaries() {
+    }
+
+    /**
+     * Summary document fields for pet
+     */
+    public static Map<String, Object> of(Pet pet) {
+        // Same fields as the pet document, read back with PetMapper; cards resolve the
+        // owner through OwnerCache
+        Map<String, Object> summary = PetMapper.toMap(pet);
+        summary.put("description", excerpt(pet.getDescription()));
+        summary.put("photoUrls", pet.getPhotoUrls() == null || pet.getPhotoUrls().isEmpty()
+                ? Collections.emptyList()
+                : Collections.singletonList(pet.getPhotoUrls().get(0)));
+        return summary;
+    }
+
+    /**
+     * description cut to at most DESCRIPTION_EXCERPT_LENGTH characters at a word break
+     */
+    static String excerpt(String description) {
+        if (description == null || description.length() <= DESCRIPTION_EXCERPT_LENGTH) return description;
+        int end = description.lastIndexOf(' ', DESCRIPTION_EXCERPT_LENGTH - 1);
+        if (end <= 0) end = DESCRIPTION_EXCERPT_LENGTH - 1;
+        return description.substring(0, end).trim() + "\u2026";
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Owner;
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetDiff;
+import com.example.pawfect.model.PetMapper;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.Map;
+
+/**
+ * Writes pets to the pets collection, together with their summary in pet_summaries
+ * and their owner in owners. The pet only references its owner by ownerId, so
+ * changing an owner's details is one write whatever the number of their pets.
+ *
+ * New pets get their document id up front rather than through add(), so a write that
+ * is retried (e.g. by PetSaveWorker) overwrites the same document instead of creating
+ * a duplicate. Edits only send the fields that changed, and are rejected when the pet
+ * was changed by someone else since it was loaded.
+ */
+public final class PetWriter {
+
+    private PetWriter() {
+    }
+
+    /**
+     * pet if it has a document id already, else a copy with a new one
+     */
+    public static Pet assignId(FirebaseFirestore db, Pet pet) {
+        if (pet.getId() != null) return pet;
+        return pet.toBuilder().id(db.collection("pets").document().getId()).build();
+    }
+
+    public static Task<Void> save(FirebaseFirestore db, Pet newPet) {
+        Pet pet = assignId(db, newPet).toBuilder().updatedAt(System.currentTimeMillis()).build();
+        String petId = pet.getId();
+        WriteBatch batch = db.batch();
+        batch.set(db.collection("pets").document(petId), PetMapper.toMap(pet));
+        batch.set(db.collection(PetSummaries.COLLECTION).document(petId), PetSummaries.of(pet));
+        String ownerId = Owner.idOf(pet.getOwner());
+        if (ownerId != null) {
+            batch.set(db.collection(OwnerCache.COLLECTION).document(ownerId), PetMapper.ownerToMap(pet.getOwner()),
+                    SetOptions.merge());
+            OwnerCache.shared().put(ownerId, pet.getOwner());
+        }
+        return batch.commit();
+    }
+
+    public static Task<Void> delete(FirebaseFirestore db, String petId) {
+        WriteBatch batch = db.batch();
+        batch.delete(db.collection("pets").document(petId));
+        batch.delete(db.collection(PetSummaries.COLLECTION).document(petId));
+        return batch.commit();
+    }
+
+    /**
+     * Update the fields of edited that differ from base, the version the edit started
+     * from. updatedAt is the version check: if the stored pet's no longer matches base's,
+     * the task fails with an exception for which isEditConflict is true.
+     *
+     * An edit of only the owner's details writes just the owner document. Runs as a
+     * transaction, so unlike save it needs the server to be reachable; edits go through
+     * PetSaveQueue, which waits for a connection.
+     */
+    public static Task<Void> update(FirebaseFirestore db, Pet base, Pet edited) {
+        Map<String, Object> changes = PetDiff.changedFields(base, edited);
+        boolean petChanged = !changes.isEmpty();
+        boolean ownerChanged = PetDiff.ownerChanged(base, edited);
+        if (!petChanged && !ownerChanged) return Tasks.forResult(null);
+
+        long updatedAt = System.currentTimeMillis();
+        changes.put("updatedAt", updatedAt);
+        if (changes.containsKey("ownerId")) {
+            // Drop the owner copy that older versions embedded
+            changes.put("owner", FieldValue.delete());
+        }
+        Owner owner = edited.getOwner();
+        String ownerId = edited.getOwnerId();
+        if (ownerChanged) {
+            OwnerCache.shared().put(ownerId, owner);
+        }
+        DocumentReference document = db.collection("pets").document(base.getId());
+        DocumentReference summaryDocument = db.collection(PetSummaries.COLLECTION).document(base.getId());
+        Map<String, Object> summary = PetSummaries.of(edited);
+        summary.put("updatedAt", updatedAt);
+
+        return db.<Void>runTransaction(transaction -> {
+            DocumentSnapshot current = transaction.get(document);
+            Long storedUpdatedAt = current.getLong("updatedAt");
+            if (!current.exists() || (storedUpdatedAt != null ? storedUpdatedAt : 0L) != base.getUpdatedAt()) {
+                throw new FirebaseFirestoreException("Pet " + base.getId() + " was edited elsewhere",
+                        FirebaseFirestoreException.Code.FAILED_PRECONDITION);
+            }
+            if (petChanged) {
+                transaction.update(document, changes);
+                transaction.set(summaryDocument, summary);
+            }
+            if (ownerChanged) {
+                transaction.set(db.collection(OwnerCache.COLLECTION).document(ownerId), PetMapper.ownerToMap(owner),
+                        SetOptions.merge());
+            }
+            return null;
+        });
+    }
+
+    public static boolean isEditConflict(Exception e) {
+        return e instanceof FirebaseFirestoreException
+                && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.FAILED_PRECONDITION;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.pawfect.data;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts how many Firestore query results were answered by the local cache and how
+ * many by the server, with their document counts and latency, per query label.
+ *
+ * Server documents are what Firestore bills as reads, so the cache share shows how
+ * much the cache-first read policy saves.
+ */
+public final class QueryMetrics {
+
+    public static final class Stats {
+        public long cacheResults;
+        public long cacheDocuments;
+        public long cacheLatencyMs;
+        public long serverResults;
+        public long serverDocuments;
+        public long serverLatencyMs;
+
+        Stats copy() {
+            Stats copy = new Stats();
+            copy.cacheResults = cacheResults;
+            copy.cacheDocuments = cacheDocuments;
+            copy.cacheLatencyMs = cacheLatencyMs;
+            copy.serverResults = serverResults;
+            copy.serverDocuments = serverDocuments;
+            copy.serverLatencyMs = serverLatencyMs;
+            return copy;
+        }
+
+        public long averageCacheLatencyMs() {
+            return cacheResults == 0 ? 0 : cacheLatencyMs / cacheResults;
+        }
+
+        public long averageServerLatencyMs() {
+            return serverResults == 0 ? 0 : serverLatencyMs / serverResults;
+        }
+    }
+
+    private static final Map<String, Stats> byLabel = new LinkedHashMap<>();
+
+    private QueryMetrics() {
+    }
+
+    /**
+     * Record one query result
+     *
+     * @param latencyMs time from issuing the query to this result
+     */
+    public static synchronized void record(String label, boolean fromCache, int documents, long latencyMs) {
+        Stats stats = byLabel.get(label);
+        if (stats == null) {
+            stats = new Stats();
+            byLabel.put(label, stats);
+        }
+        if (fromCache) {
+            stats.cacheResults++;
+            stats.cacheDocuments += documents;
+            stats.cacheLatencyMs += latencyMs;
+        } else {
+            stats.serverResults++;
+            stats.serverDocuments += documents;
+            stats.serverLatencyMs += latencyMs;
+        }
+    }
+
+    /**
+     * Copy of the counters for label, all zero if it was never recorded
+     */
+    public static synchronized Stats get(String label) {
+        Stats stats = byLabel.get(label);
+        return stats != null ? stats.copy() : new Stats();
+    }
+
+    public static synchronized void reset() {
+        byLabel.clear();
+    }
+
+    public static synchronized String summary() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, Stats> entry : byLabel.entrySet()) {
+            Stats stats = entry.getValue();
+            if (summary.length() > 0) summary.append("; ");
+            summary.append(String.format(Locale.ROOT,
+                    "%s: cache %d results / %d docs / %d ms avg, server %d results / %d docs / %d ms avg",
+                    entry.getKey(), stats.cacheResults, stats.cacheDocuments, stats.averageCacheLatencyMs(),
+                    stats.serverResults, stats.serverDocuments, stats.averageServerLatencyMs()));
+        }
+        return summary.length() > 0 ? summary.toString() : "no queries";
+    }
+}
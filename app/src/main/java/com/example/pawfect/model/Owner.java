@@ -1,15 +1,19 @@
 package com.example.pawfect.model;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Objects;
 
-public class Owner implements Serializable {
-    private String name;
-    private String email;
-    private String phone;
-
-    public Owner() {
-        // Default constructor required for Firestore
-    }
+/**
+ * Immutable owner contact details
+ */
+public final class Owner implements Serializable {
+    private final String name;
+    private final String email;
+    private final String phone;
 
     public Owner(String name, String email, String phone) {
         this.name = name;
@@ -17,28 +21,64 @@ public class Owner implements Serializable {
         this.phone = phone;
     }
 
-    public String getName() {
-        return name;
+    /**
+     * Stable id of owner's document in the owners collection: a hash of the lower-cased
+     * email, or of name and phone when there is no email. Null for a missing or blank
+     * owner.
+     */
+    public static String idOf(Owner owner) {
+        if (owner == null) return null;
+        String key;
+        if (!isBlank(owner.email)) {
+            key = "email:" + owner.email.trim().toLowerCase(Locale.ROOT);
+        } else if (!isBlank(owner.name) || !isBlank(owner.phone)) {
+            key = "contact:" + (owner.name != null ? owner.name.trim().toLowerCase(Locale.ROOT) : "")
+                    + "|" + (owner.phone != null ? owner.phone.replaceAll("[^0-9+]", "") : "");
+        } else {
+            return null;
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder id = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                id.append(String.format(Locale.ROOT, "%02x", digest[i]));
+            }
+            return id.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has SHA-256
+            throw new IllegalStateException(e);
+        }
     }
 
-    public void setName(String name) {
-        this.name = name;
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
     }
 
-    public String getEmail() {
-        return email;
+    public String getName() {
+        return name;
     }
 
-    public void setEmail(String email) {
-        this.email = email;
+    public String getEmail() {
+        return email;
     }
 
     public String getPhone() {
         return phone;
     }
 
-    public void setPhone(String phone) {
-        this.phone = phone;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Owner owner = (Owner) o;
+        return Objects.equals(name, owner.name)
+                && Objects.equals(email, owner.email)
+                && Objects.equals(phone, owner.phone);
     }
-}
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, email, phone);
+    }
+}
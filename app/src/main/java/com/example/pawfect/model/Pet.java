@@ -1,95 +1,238 @@
 package com.example.pawfect.model;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-
-public class Pet implements Serializable {
-    private String id;
-    private String name;
-    private String description;
-    private String type; // dog, cat, etc.
-    private String age;
-    private String race; // breed
-    private Owner owner;
-    private List<String> photoUrls;
-
-    public Pet() {
-        // Default constructor required for Firestore
-    }
-
-    public Pet(String id, String name, String description, String type, String age, String race, Owner owner, List<String> photoUrls) {
-        this.id = id;
-        this.name = name;
-        this.description = description;
-        this.type = type;
-        this.age = age;
-        this.race = race;
-        this.owner = owner;
-        this.photoUrls = photoUrls;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Immutable pet. Build one with builder(), or change a copy with toBuilder().
+ *
+ * The type is kept both as entered (getTypeLabel) and as a PetType, and the age as a
+ * number of months, so filtering compares enums and ints. The type label and breed
+ * are pooled with StringPool since few distinct values are shared by many pets.
+ */
+public final class Pet implements Serializable {
+    private final String id;
+    private final String name;
+    private final String description;
+    private final String typeLabel; // as entered: "Dog", "Cat", "Hamster"
+    private final PetType type;
+    private final int ageMonths; // PetAge.UNKNOWN when not known
+    private final String race; // breed
+    private final Owner owner; // resolved from the owners collection, not stored on the pet
+    private final String ownerId; // id in the owners collection, see Owner.idOf
+    private final List<String> photoUrls;
+    private final long updatedAt; // epoch millis of the last write, 0 for legacy documents
+
+    private Pet(Builder builder) {
+        this.id = builder.id;
+        this.name = builder.name;
+        this.description = builder.description;
+        this.typeLabel = StringPool.intern(builder.typeLabel);
+        this.type = PetType.fromString(builder.typeLabel);
+        this.ageMonths = builder.ageMonths;
+        this.race = StringPool.intern(builder.race);
+        this.owner = builder.owner;
+        this.ownerId = builder.ownerId;
+        this.photoUrls = builder.photoUrls != null
+                ? Collections.unmodifiableList(new ArrayList<>(builder.photoUrls)) : null;
+        this.updatedAt = builder.updatedAt;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.id = id;
+        builder.name = name;
+        builder.description = description;
+        builder.typeLabel = typeLabel;
+        builder.ageMonths = ageMonths;
+        builder.race = race;
+        builder.owner = owner;
+        builder.ownerId = ownerId;
+        builder.photoUrls = photoUrls;
+        builder.updatedAt = updatedAt;
+        return builder;
+    }
+
+    /**
+     * Normalised form of a type as stored in typeKey, or null when blank
+     */
+    public static String normalizeType(String type) {
+        if (type == null) return null;
+        String normalized = type.trim().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
     }
 
     public String getId() {
         return id;
     }
 
-    public void setId(String id) {
-        this.id = id;
-    }
-
     public String getName() {
         return name;
     }
 
-    public void setName(String name) {
-        this.name = name;
-    }
-
     public String getDescription() {
         return description;
     }
 
-    public void setDescription(String description) {
-        this.description = description;
+    /**
+     * The type as entered, for display
+     */
+    public String getTypeLabel() {
+        return typeLabel;
     }
 
-    public String getType() {
+    /**
+     * The type, or null when none was entered
+     */
+    public PetType getType() {
         return type;
     }
 
-    public void setType(String type) {
-        this.type = type;
-    }
-
-    public String getAge() {
-        return age;
+    /**
+     * The normalised type label that server-side queries filter on
+     */
+    public String getTypeKey() {
+        return normalizeType(typeLabel);
     }
 
-    public void setAge(String age) {
-        this.age = age;
+    public int getAgeMonths() {
+        return ageMonths;
     }
 
     public String getRace() {
         return race;
     }
 
-    public void setRace(String race) {
-        this.race = race;
-    }
-
     public Owner getOwner() {
         return owner;
     }
 
-    public void setOwner(Owner owner) {
-        this.owner = owner;
+    public String getOwnerId() {
+        return ownerId;
     }
 
+    /**
+     * Unmodifiable, or null
+     */
     public List<String> getPhotoUrls() {
         return photoUrls;
     }
 
-    public void setPhotoUrls(List<String> photoUrls) {
-        this.photoUrls = photoUrls;
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    private Object readResolve() {
+        // Deserialised strings are new instances; share the pooled ones again
+        return toBuilder().build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Pet pet = (Pet) o;
+        return ageMonths == pet.ageMonths
+                && updatedAt == pet.updatedAt
+                && Objects.equals(id, pet.id)
+                && Objects.equals(name, pet.name)
+                && Objects.equals(description, pet.description)
+                && Objects.equals(typeLabel, pet.typeLabel)
+                && Objects.equals(race, pet.race)
+                && Objects.equals(owner, pet.owner)
+                && Objects.equals(ownerId, pet.ownerId)
+                && Objects.equals(photoUrls, pet.photoUrls);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, description, typeLabel, ageMonths, race, owner, ownerId, photoUrls, updatedAt);
+    }
+
+    public static final class Builder {
+        private String id;
+        private String name;
+        private String description;
+        private String typeLabel;
+        private int ageMonths = PetAge.UNKNOWN;
+        private String race;
+        private Owner owner;
+        private String ownerId;
+        private List<String> photoUrls;
+        private long updatedAt;
+
+        private Builder() {
+        }
+
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder description(String description) {
+            this.description = description;
+            return this;
+        }
+
+        /**
+         * The type as entered; the PetType is derived from it
+         */
+        public Builder type(String typeLabel) {
+            this.typeLabel = typeLabel;
+            return this;
+        }
+
+        public Builder ageMonths(int ageMonths) {
+            this.ageMonths = ageMonths < 0 ? PetAge.UNKNOWN : ageMonths;
+            return this;
+        }
+
+        public Builder race(String race) {
+            this.race = race;
+            return this;
+        }
+
+        /**
+         * Also points ownerId at owner, unless owner is null (e.g. not resolved yet)
+         */
+        public Builder owner(Owner owner) {
+            this.owner = owner;
+            if (owner != null) {
+                this.ownerId = Owner.idOf(owner);
+            }
+            return this;
+        }
+
+        public Builder ownerId(String ownerId) {
+            this.ownerId = ownerId;
+            return this;
+        }
+
+        public Builder photoUrls(List<String> photoUrls) {
+            this.photoUrls = photoUrls;
+            return this;
+        }
+
+        public Builder updatedAt(long updatedAt) {
+            this.updatedAt = updatedAt;
+            return this;
+        }
+
+        public Pet build() {
+            return new Pet(this);
+        }
     }
 }
-
@@ -0,0 +1,79 @@
+package com.example.pawfect.model;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conversion between a pet's age in months and the free-form text it was entered and
+ * stored as before ageMonths existed, e.g. "3", "2 years", "1 year 6 months" or "8 wks".
+ * A bare number is a number of years.
+ */
+public final class PetAge {
+
+    public static final int UNKNOWN = -1;
+
+    private static final Pattern PART = Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*([a-z]*)");
+
+    private PetAge() {
+    }
+
+    /**
+     * Age in months of text, or UNKNOWN when it is blank or has a unit other than
+     * years, months or weeks
+     */
+    public static int parse(String text) {
+        if (text == null) return UNKNOWN;
+        Matcher matcher = PART.matcher(text.toLowerCase(Locale.ROOT));
+        double months = 0;
+        boolean found = false;
+        while (matcher.find()) {
+            double amount = Double.parseDouble(matcher.group(1).replace(',', '.'));
+            double perUnit = monthsPer(matcher.group(2));
+            if (perUnit < 0) return UNKNOWN;
+            months += amount * perUnit;
+            found = true;
+        }
+        return found ? (int) Math.round(months) : UNKNOWN;
+    }
+
+    /**
+     * Display text for an age in months, or null when UNKNOWN
+     */
+    public static String format(int months) {
+        if (months < 0) return null;
+        if (months < 12) return plural(months, "month");
+        String years = plural(months / 12, "year");
+        return months % 12 == 0 ? years : years + " " + plural(months % 12, "month");
+    }
+
+    private static double monthsPer(String unit) {
+        switch (unit) {
+            case "":
+            case "y":
+            case "yr":
+            case "yrs":
+            case "year":
+            case "years":
+                return 12;
+            case "m":
+            case "mo":
+            case "mos":
+            case "month":
+            case "months":
+                return 1;
+            case "w":
+            case "wk":
+            case "wks":
+            case "week":
+            case "weeks":
+                return 12 / 52.0;
+            default:
+                return -1;
+        }
+    }
+
+    private static String plural(int count, String unit) {
+        return count + " " + (count == 1 ? unit : unit + "s");
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.pawfect.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of Pet and Owner.
+ *
+ * Fields are written in a fixed order as UTF-8 prefixed with a varint of length + 1
+ * (0 for null), with no class metadata, so it is much smaller and faster than Java
+ * serialization. The age is a varint of months + 1 (0 for unknown); the PetType and
+ * typeKey are derived from the type label and not written. Bump FORMAT_VERSION
+ * whenever the layout changes.
+ */
+public final class PetCodec {
+
+    public static final int FORMAT_VERSION = 3;
+
+    private PetCodec() {
+    }
+
+    public static byte[] encode(Pet pet) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            write(pet, out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // Writing to memory cannot fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static Pet decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported pet format version " + version);
+        }
+        return read(in);
+    }
+
+    public static void write(Pet pet, DataOutput out) throws IOException {
+        writeString(out, pet.getId());
+        writeString(out, pet.getName());
+        writeString(out, pet.getDescription());
+        writeString(out, pet.getTypeLabel());
+        writeVarInt(out, pet.getAgeMonths() + 1);
+        writeString(out, pet.getRace());
+
+        Owner owner = pet.getOwner();
+        out.writeBoolean(owner != null);
+        if (owner != null) {
+            writeString(out, owner.getName());
+            writeString(out, owner.getEmail());
+            writeString(out, owner.getPhone());
+        }
+        writeString(out, pet.getOwnerId());
+
+        List<String> photoUrls = pet.getPhotoUrls();
+        writeVarInt(out, photoUrls != null ? photoUrls.size() + 1 : 0);
+        if (photoUrls != null) {
+            for (String url : photoUrls) {
+                writeString(out, url);
+            }
+        }
+
+        out.writeLong(pet.getUpdatedAt());
+    }
+
+    public static Pet read(DataInput in) throws IOException {
+        Pet.Builder pet = Pet.builder()
+                .id(readString(in))
+                .name(readString(in))
+                .description(readString(in))
+                .type(readString(in))
+                .ageMonths(readVarInt(in) - 1)
+                .race(readString(in));
+
+        if (in.readBoolean()) {
+            pet.owner(new Owner(readString(in), readString(in), readString(in)));
+        }
+        pet.ownerId(readString(in));
+
+        int photoCount = readVarInt(in) - 1;
+        if (photoCount >= 0) {
+            List<String> photoUrls = new ArrayList<>(photoCount);
+            for (int i = 0; i < photoCount; i++) {
+                photoUrls.add(readString(in));
+            }
+            pet.photoUrls(photoUrls);
+        }
+
+        return pet.updatedAt(in.readLong()).build();
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.pawfect.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Field-level changes between two versions of a pet, as Firestore field paths, so an
+ * edit can update() only what changed instead of rewriting the whole document.
+ *
+ * The owner's contact details live in the owners collection, so the pet document
+ * only changes when ownerId does; ownerChanged tells whether the owner document
+ * needs writing.
+ */
+public final class PetDiff {
+
+    private PetDiff() {
+    }
+
+    /**
+     * Map of field path to new value for every field of edited that differs from base;
+     * empty when nothing changed. The id and updatedAt are not compared.
+     */
+    public static Map<String, Object> changedFields(Pet base, Pet edited) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfChanged(changes, "name", base.getName(), edited.getName());
+        putIfChanged(changes, "description", base.getDescription(), edited.getDescription());
+        putIfChanged(changes, "type", base.getTypeLabel(), edited.getTypeLabel());
+        putIfChanged(changes, "typeKey", base.getTypeKey(), edited.getTypeKey());
+        if (base.getAgeMonths() != edited.getAgeMonths()) {
+            // The age text is kept for older versions
+            changes.put("ageMonths", PetMapper.ageMonthsValue(edited.getAgeMonths()));
+            changes.put("age", PetAge.format(edited.getAgeMonths()));
+        }
+        putIfChanged(changes, "race", base.getRace(), edited.getRace());
+        putIfChanged(changes, "ownerId", base.getOwnerId(), edited.getOwnerId());
+
+        // Lists have no partial update that keeps order, so a changed list is sent whole
+        if (!Objects.equals(base.getPhotoUrls(), edited.getPhotoUrls())) {
+            changes.put("photoUrls", edited.getPhotoUrls() != null ? new ArrayList<>(edited.getPhotoUrls()) : null);
+        }
+        return changes;
+    }
+
+    /**
+     * Whether edited has an owner whose details differ from base's
+     */
+    public static boolean ownerChanged(Pet base, Pet edited) {
+        return edited.getOwnerId() != null && !Objects.equals(base.getOwner(), edited.getOwner());
+    }
+
+    private static void putIfChanged(Map<String, Object> changes, String field, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            changes.put(field, after);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.pawfect.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written conversion between Pet/Owner and Firestore field maps, used instead of
+ * toObject() and set(pet), which go through Firestore's reflective bean mapper.
+ *
+ * Reading takes DocumentSnapshot.getData(); writing produces the map to set(). Pet
+ * documents hold an ownerId rather than the owner, though an owner embedded by older
+ * versions is still read. The age is stored as ageMonths, with the age text next to it
+ * for older versions; documents without ageMonths have their age text parsed with
+ * PetAge. Values of an unexpected type are converted where that is obvious (a number
+ * for a string field) and dropped otherwise, instead of failing the whole document.
+ */
+public final class PetMapper {
+
+    private PetMapper() {
+    }
+
+    /**
+     * The pet stored in a document's data, or null for a missing document
+     */
+    public static Pet fromMap(String id, Map<String, Object> data) {
+        if (data == null) return null;
+        Object ageMonths = data.get("ageMonths");
+        Pet.Builder pet = Pet.builder()
+                .id(id)
+                .name(string(data.get("name")))
+                .description(string(data.get("description")))
+                .type(string(data.get("type")))
+                .ageMonths(ageMonths instanceof Number
+                        ? ((Number) ageMonths).intValue() : PetAge.parse(string(data.get("age"))))
+                .race(string(data.get("race")));
+
+        Object owner = data.get("owner");
+        if (owner instanceof Map) {
+            // Also derives ownerId, for documents from before the owners collection
+            pet.owner(ownerFromMap(asMap(owner)));
+        }
+        if (data.get("ownerId") instanceof String) {
+            pet.ownerId((String) data.get("ownerId"));
+        }
+
+        Object photoUrls = data.get("photoUrls");
+        if (photoUrls instanceof List) {
+            List<?> values = (List<?>) photoUrls;
+            List<String> urls = new ArrayList<>(values.size());
+            for (Object value : values) {
+                String url = string(value);
+                if (url != null) urls.add(url);
+            }
+            pet.photoUrls(urls);
+        }
+
+        Object updatedAt = data.get("updatedAt");
+        return pet.updatedAt(updatedAt instanceof Number ? ((Number) updatedAt).longValue() : 0L).build();
+    }
+
+    /**
+     * Document fields for pet; the id is the document's name, not a field
+     */
+    public static Map<String, Object> toMap(Pet pet) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", pet.getName());
+        data.put("description", pet.getDescription());
+        data.put("type", pet.getTypeLabel());
+        data.put("typeKey", pet.getTypeKey());
+        data.put("ageMonths", ageMonthsValue(pet.getAgeMonths()));
+        data.put("age", PetAge.format(pet.getAgeMonths()));
+        data.put("race", pet.getRace());
+        data.put("ownerId", pet.getOwnerId());
+        data.put("photoUrls", pet.getPhotoUrls() != null ? new ArrayList<>(pet.getPhotoUrls()) : null);
+        data.put("updatedAt", pet.getUpdatedAt());
+        return data;
+    }
+
+    public static Owner ownerFromMap(Map<String, Object> data) {
+        if (data == null) return null;
+        return new Owner(string(data.get("name")), string(data.get("email")), string(data.get("phone")));
+    }
+
+    public static Map<String, Object> ownerToMap(Owner owner) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", owner.getName());
+        data.put("email", owner.getEmail());
+        data.put("phone", owner.getPhone());
+        return data;
+    }
+
+    /**
+     * The stored ageMonths for an age in months: null when unknown
+     */
+    public static Integer ageMonthsValue(int ageMonths) {
+        return ageMonths == PetAge.UNKNOWN ? null : ageMonths;
+    }
+
+    private static String string(Object value) {
+        if (value instanceof String) return (String) value;
+        if (value instanceof Number || value instanceof Boolean) return value.toString();
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
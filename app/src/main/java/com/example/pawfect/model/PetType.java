@@ -0,0 +1,43 @@
+package com.example.pawfect.model;
+
+/**
+ * Kind of pet, derived from the free-form type the user entered. Filtering compares
+ * these rather than strings; the entered text is kept on Pet for display.
+ */
+public enum PetType {
+    DOG("dog"),
+    CAT("cat"),
+    BIRD("bird"),
+    RABBIT("rabbit"),
+    FISH("fish"),
+    OTHER("other");
+
+    // values() copies the array on every call
+    private static final PetType[] VALUES = values();
+
+    private final String key;
+
+    PetType(String key) {
+        this.key = key;
+    }
+
+    /**
+     * The normalised type stored in typeKey for pets of this type
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * The type for a type as entered, matched on its normalised form; OTHER when it
+     * matches none and null when blank
+     */
+    public static PetType fromString(String type) {
+        String normalized = Pet.normalizeType(type);
+        if (normalized == null) return null;
+        for (PetType value : VALUES) {
+            if (value.key.equals(normalized)) return value;
+        }
+        return OTHER;
+    }
+}
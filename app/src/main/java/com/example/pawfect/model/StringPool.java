@@ -0,0 +1,32 @@
+package com.example.pawfect.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares one String instance per distinct value of the few-valued fields of a pet,
+ * such as breed and type, so a list of pets holds one "Labrador" rather than one
+ * per pet. Unlike String.intern() the pool is bounded: once it holds MAX_SIZE values,
+ * new ones are returned as they are.
+ */
+public final class StringPool {
+
+    static final int MAX_SIZE = 4096;
+
+    private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>();
+
+    private StringPool() {
+    }
+
+    /**
+     * The pooled instance equal to value, or value itself when it is null or the pool
+     * is full
+     */
+    public static String intern(String value) {
+        if (value == null) return null;
+        String pooled = POOL.get(value);
+        if (pooled != null) return pooled;
+        if (POOL.size() >= MAX_SIZE) return value;
+        pooled = POOL.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+}
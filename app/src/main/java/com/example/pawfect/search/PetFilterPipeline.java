@@ -0,0 +1,106 @@
+package com.example.pawfect.search;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the pet search and type filter on a background thread.
+ *
+ * The PetSearchIndex lives on the pipeline's single worker thread. Typed queries are
+ * debounced, every new request cancels the one still waiting before it, and results
+ * are tagged with a generation number so a stale run never overwrites a newer one.
+ * Results are handed to the listener on the delivery executor as unmodifiable lists.
+ *
+ * setPets, setQuery, setType and shutdown must be called from the delivery thread.
+ */
+public class PetFilterPipeline {
+
+    public interface Listener {
+        void onResults(List<Pet> pets);
+    }
+
+    public static final long DEFAULT_DEBOUNCE_MS = 250;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor();
+    private final PetSearchIndex index = new PetSearchIndex();
+    private final Executor deliveryExecutor;
+    private final Listener listener;
+    private final long debounceMs;
+
+    private String query;
+    private PetType type; // null for every type
+    private int generation = 0;
+    private ScheduledFuture<?> pendingRun;
+
+    public PetFilterPipeline(Executor deliveryExecutor, Listener listener) {
+        this(deliveryExecutor, DEFAULT_DEBOUNCE_MS, listener);
+    }
+
+    public PetFilterPipeline(Executor deliveryExecutor, long debounceMs, Listener listener) {
+        this.deliveryExecutor = deliveryExecutor;
+        this.debounceMs = debounceMs;
+        this.listener = listener;
+    }
+
+    /**
+     * Replace the pets being filtered. The index sync is never cancelled; the filter
+     * run that follows it is.
+     */
+    public void setPets(List<Pet> pets) {
+        final List<Pet> snapshot = new ArrayList<>(pets);
+        worker.execute(() -> index.sync(snapshot));
+        schedule(0);
+    }
+
+    /**
+     * Update the search text; the filter runs once typing pauses
+     */
+    public void setQuery(String query) {
+        this.query = query;
+        schedule(debounceMs);
+    }
+
+    /**
+     * Only keep pets of type, or of any type when null
+     */
+    public void setType(PetType type) {
+        this.type = type;
+        schedule(0);
+    }
+
+    public void shutdown() {
+        generation++;
+        worker.shutdownNow();
+    }
+
+    private void schedule(long delayMs) {
+        if (worker.isShutdown()) return;
+
+        final int runGeneration = ++generation;
+        final String runQuery = query;
+        final PetType runType = type;
+
+        if (pendingRun != null) {
+            pendingRun.cancel(false);
+        }
+        pendingRun = worker.schedule(() -> {
+            List<Pet> results = new ArrayList<>();
+            index.search(runQuery, runType, results);
+            final List<Pet> published = Collections.unmodifiableList(results);
+            deliveryExecutor.execute(() -> {
+                if (runGeneration == generation) {
+                    listener.onResults(published);
+                }
+            });
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.pawfect.search;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over pet name, description and race.
+ *
+ * Every pet gets an integer slot; each token and each PetType keeps a BitSet posting
+ * list of slots, the type ones in an array indexed by ordinal. A search ORs the postings of every token starting with each query term
+ * (prefix match), ANDs the terms together and with the type postings, then walks the
+ * set bits. Query work only touches the matching posting lists and reuses scratch
+ * sets, so nothing proportional to the number of pets is allocated per keystroke.
+ *
+ * Slots are reused, so slot order says nothing about list order; each slot also
+ * records the pet's position in the list last passed to sync, and hits are sorted
+ * by it.
+ *
+ * Not thread-safe: confine an instance to one thread.
+ */
+public class PetSearchIndex {
+
+    private final TreeMap<String, BitSet> tokenPostings = new TreeMap<>();
+    private final BitSet[] typePostings = new BitSet[PetType.values().length];
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final ArrayList<Pet> pets = new ArrayList<>();
+    private final ArrayList<List<String>> tokensBySlot = new ArrayList<>();
+    private final ArrayList<PetType> typeBySlot = new ArrayList<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet liveSlots = new BitSet();
+
+    private int[] positionBySlot = new int[16];
+    private int nextPosition = 0;
+
+    // Reused by every search
+    private final BitSet result = new BitSet();
+    private final BitSet termMatches = new BitSet();
+    private long[] hits = new long[16];
+
+    public int size() {
+        return slotsById.size();
+    }
+
+    /**
+     * Bring the index in line with the given pets. Pets whose instance is already
+     * indexed are skipped, so only added, replaced and removed pets are re-tokenised.
+     */
+    public void sync(List<Pet> current) {
+        IdentityHashMap<Pet, Boolean> keep = new IdentityHashMap<>(current.size());
+        for (int position = 0; position < current.size(); position++) {
+            Pet pet = current.get(position);
+            if (pet.getId() == null) continue;
+            keep.put(pet, Boolean.TRUE);
+            Integer slot = slotsById.get(pet.getId());
+            if (slot == null || pets.get(slot) != pet) {
+                put(pet);
+                slot = slotsById.get(pet.getId());
+            }
+            positionBySlot[slot] = position;
+        }
+        nextPosition = current.size();
+
+        List<String> stale = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : slotsById.entrySet()) {
+            if (!keep.containsKey(pets.get(entry.getValue()))) {
+                stale.add(entry.getKey());
+            }
+        }
+        for (String id : stale) {
+            remove(id);
+        }
+    }
+
+    public void put(Pet pet) {
+        remove(pet.getId());
+
+        int slot = freeSlots.isEmpty() ? pets.size() : freeSlots.pop();
+        List<String> tokens = new ArrayList<>();
+        tokenize(pet.getName(), tokens);
+        tokenize(pet.getDescription(), tokens);
+        tokenize(pet.getRace(), tokens);
+        PetType type = pet.getType();
+
+        if (slot == pets.size()) {
+            pets.add(pet);
+            tokensBySlot.add(tokens);
+            typeBySlot.add(type);
+        } else {
+            pets.set(slot, pet);
+            tokensBySlot.set(slot, tokens);
+            typeBySlot.set(slot, type);
+        }
+
+        for (String token : tokens) {
+            BitSet posting = tokenPostings.get(token);
+            if (posting == null) {
+                posting = new BitSet();
+                tokenPostings.put(token, posting);
+            }
+            posting.set(slot);
+        }
+        if (type != null) {
+            BitSet posting = typePostings[type.ordinal()];
+            if (posting == null) {
+                posting = new BitSet();
+                typePostings[type.ordinal()] = posting;
+            }
+            posting.set(slot);
+        }
+        if (slot >= positionBySlot.length) {
+            positionBySlot = Arrays.copyOf(positionBySlot, Math.max(slot + 1, positionBySlot.length * 2));
+        }
+        // Last in the list until sync says otherwise
+        positionBySlot[slot] = nextPosition++;
+        liveSlots.set(slot);
+        slotsById.put(pet.getId(), slot);
+    }
+
+    public void remove(String petId) {
+        Integer slot = slotsById.remove(petId);
+        if (slot == null) return;
+
+        for (String token : tokensBySlot.get(slot)) {
+            BitSet posting = tokenPostings.get(token);
+            if (posting != null) {
+                posting.clear(slot);
+                if (posting.isEmpty()) {
+                    tokenPostings.remove(token);
+                }
+            }
+        }
+        PetType type = typeBySlot.get(slot);
+        if (type != null) {
+            typePostings[type.ordinal()].clear(slot);
+        }
+
+        liveSlots.clear(slot);
+        pets.set(slot, null);
+        tokensBySlot.set(slot, null);
+        typeBySlot.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    /**
+     * Append to out every pet of the given type (null for any) whose name, description
+     * or race contains a word starting with each word of the query. Results come back
+     * in list order.
+     */
+    public void search(String query, PetType type, List<Pet> out) {
+        result.clear();
+        if (type == null) {
+            result.or(liveSlots);
+        } else {
+            BitSet posting = typePostings[type.ordinal()];
+            if (posting == null) return;
+            result.or(posting);
+        }
+
+        if (query != null && !query.isEmpty()) {
+            List<String> terms = new ArrayList<>();
+            tokenize(query, terms);
+            for (String term : terms) {
+                termMatches.clear();
+                // Every token in [term, term + MAX_VALUE) starts with term
+                for (BitSet posting : tokenPostings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                    termMatches.or(posting);
+                }
+                result.and(termMatches);
+                if (result.isEmpty()) return;
+            }
+        }
+
+        // Sort by list position, packed above the slot so no boxing is needed
+        int count = result.cardinality();
+        if (hits.length < count) {
+            hits = new long[Math.max(count, hits.length * 2)];
+        }
+        int i = 0;
+        for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+            hits[i++] = ((long) positionBySlot[slot] << 32) | slot;
+        }
+        Arrays.sort(hits, 0, count);
+        for (i = 0; i < count; i++) {
+            out.add(pets.get((int) hits[i]));
+        }
+    }
+
+    /**
+     * Split on anything that is not a letter or digit and lower-case each word
+     */
+    static void tokenize(String text, List<String> out) {
+        if (text == null) return;
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!out.contains(token)) {
+                    out.add(token);
+                }
+                start = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.pawfect.util;
+
+import android.content.Context;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * The application's single OkHttpClient, shared by ImageKit uploads and Glide.
+ *
+ * Sharing one client means one connection pool, dispatcher thread pool and HTTP
+ * cache rather than one of each per caller. Connections themselves are per host:
+ * uploads go to upload.imagekit.io and thumbnails come from ik.imagekit.io, so each
+ * keeps its own warm HTTP/2 connection in the pool.
+ */
+public final class HttpClients {
+
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final int MAX_REQUESTS_PER_HOST = 8;
+    // Glide keeps its own disk cache of images, so this one only needs to be small
+    private static final long CACHE_SIZE_BYTES = 10L * 1024 * 1024;
+
+    private static OkHttpClient client;
+
+    private HttpClients() {
+    }
+
+    public static synchronized OkHttpClient get(Context context) {
+        if (client == null) {
+            client = build(new File(context.getApplicationContext().getCacheDir(), "http"));
+        }
+        return client;
+    }
+
+    static OkHttpClient build(File cacheDir) {
+        Dispatcher dispatcher = new Dispatcher();
+        // Glide fetches a screenful of thumbnails from ik.imagekit.io at once; uploads
+        // go to upload.imagekit.io and count against that host's limit instead
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .cache(new Cache(cacheDir, CACHE_SIZE_BYTES))
+                .connectTimeout(15, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                // Uploads of large photos on slow uplinks need more time than reads
+                .writeTimeout(60, TimeUnit.SECONDS)
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.pawfect.util;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit and miss counters for Glide's memory cache and bitmap pool, as configured by
+ * PawfectGlideModule. Use them to tune the cache sizes.
+ */
+public final class ImageCacheStats {
+
+    private static final AtomicLong memoryHits = new AtomicLong();
+    private static final AtomicLong memoryMisses = new AtomicLong();
+    private static volatile LruBitmapPool bitmapPool;
+
+    private ImageCacheStats() {
+    }
+
+    static void recordMemoryLookup(boolean hit) {
+        (hit ? memoryHits : memoryMisses).incrementAndGet();
+    }
+
+    static void setBitmapPool(LruBitmapPool pool) {
+        bitmapPool = pool;
+    }
+
+    public static long memoryHits() {
+        return memoryHits.get();
+    }
+
+    public static long memoryMisses() {
+        return memoryMisses.get();
+    }
+
+    public static long bitmapPoolHits() {
+        LruBitmapPool pool = bitmapPool;
+        return pool != null ? pool.hitCount() : 0;
+    }
+
+    public static long bitmapPoolMisses() {
+        LruBitmapPool pool = bitmapPool;
+        return pool != null ? pool.missCount() : 0;
+    }
+
+    public static long bitmapPoolEvictions() {
+        LruBitmapPool pool = bitmapPool;
+        return pool != null ? pool.evictionCount() : 0;
+    }
+
+    public static String summary() {
+        return String.format(Locale.ROOT, "memory cache %d hits / %d misses, bitmap pool %d hits / %d misses / %d evictions",
+                memoryHits(), memoryMisses(), bitmapPoolHits(), bitmapPoolMisses(), bitmapPoolEvictions());
+    }
+}
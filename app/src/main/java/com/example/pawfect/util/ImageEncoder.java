@@ -0,0 +1,165 @@
+package com.example.pawfect.util;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * Downscales and re-encodes picked images before they are uploaded.
+ *
+ * The returned RequestBody does all the work lazily in writeTo, i.e. on OkHttp's
+ * thread: it decodes with an inSampleSize bound, applies the EXIF orientation, scales
+ * the longest edge down to maxEdge and compresses straight into the request sink.
+ */
+public class ImageEncoder {
+
+    public static class Options {
+        public int maxEdge = 1600;
+        public int quality = 80;
+        public Bitmap.CompressFormat format = Bitmap.CompressFormat.WEBP_LOSSY;
+
+        public String mimeType() {
+            return format == Bitmap.CompressFormat.JPEG ? "image/jpeg" : "image/webp";
+        }
+
+        public String extension() {
+            return format == Bitmap.CompressFormat.JPEG ? ".jpg" : ".webp";
+        }
+    }
+
+    public static RequestBody requestBody(Context context, Uri uri, Options options) {
+        final ContentResolver resolver = context.getApplicationContext().getContentResolver();
+        final MediaType mediaType = MediaType.parse(options.mimeType());
+
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                Bitmap bitmap = decode(resolver, uri, options.maxEdge);
+                try {
+                    if (!bitmap.compress(options.format, options.quality, sink.outputStream())) {
+                        throw new IOException("Could not encode image");
+                    }
+                } finally {
+                    bitmap.recycle();
+                }
+            }
+        };
+    }
+
+    /**
+     * Decode uri upright with its longest edge at most maxEdge pixels
+     */
+    static Bitmap decode(ContentResolver resolver, Uri uri, int maxEdge) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, uri)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Unsupported image format");
+        }
+
+        BitmapFactory.Options decodeOptions = new BitmapFactory.Options();
+        decodeOptions.inSampleSize = sampleSize(Math.max(bounds.outWidth, bounds.outHeight), maxEdge);
+        Bitmap sampled;
+        try (InputStream in = open(resolver, uri)) {
+            sampled = BitmapFactory.decodeStream(in, null, decodeOptions);
+        }
+        if (sampled == null) {
+            throw new IOException("Could not decode image");
+        }
+
+        Matrix matrix = orientationMatrix(readOrientation(resolver, uri));
+        int longestEdge = Math.max(sampled.getWidth(), sampled.getHeight());
+        if (longestEdge > maxEdge) {
+            float scale = (float) maxEdge / longestEdge;
+            matrix.postScale(scale, scale);
+        }
+        if (matrix.isIdentity()) {
+            return sampled;
+        }
+
+        Bitmap transformed = Bitmap.createBitmap(sampled, 0, 0, sampled.getWidth(), sampled.getHeight(), matrix, true);
+        if (transformed != sampled) {
+            sampled.recycle();
+        }
+        return transformed;
+    }
+
+    /**
+     * Largest power of two that keeps the longest edge at or above maxEdge
+     */
+    static int sampleSize(int longestEdge, int maxEdge) {
+        int sampleSize = 1;
+        while (longestEdge / (sampleSize * 2) >= maxEdge) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private static int readOrientation(ContentResolver resolver, Uri uri) {
+        try (InputStream in = open(resolver, uri)) {
+            return new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        } catch (IOException e) {
+            // No readable EXIF block, e.g. PNG
+            return ExifInterface.ORIENTATION_NORMAL;
+        }
+    }
+
+    private static Matrix orientationMatrix(int orientation) {
+        Matrix matrix = new Matrix();
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.setScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.setRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.setScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.setRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.setRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.setRotate(-90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.setRotate(-90);
+                break;
+            default:
+                break;
+        }
+        return matrix;
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("Cannot open " + uri);
+        }
+        return in;
+    }
+}
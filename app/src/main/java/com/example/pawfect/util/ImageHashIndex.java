@@ -0,0 +1,149 @@
+package com.example.pawfect.util;
+
+import android.content.Context;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Persistent index from image content hash to the ImageKit URL it was uploaded to, so
+ * an image that was uploaded before is not sent again.
+ *
+ * Entries are kept in access order and the least recently used ones are evicted past
+ * maxEntries. Every change is written through to a temp file that is renamed over the
+ * index, like PetDiskCache.
+ */
+public class ImageHashIndex {
+
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+
+    private static final int MAGIC = 0x494D4748; // "IMGH"
+    private static final int FORMAT_VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static ImageHashIndex shared;
+
+    private final File file;
+    private final int maxEntries;
+    private Map<String, String> entries;
+
+    public ImageHashIndex(File file) {
+        this(file, DEFAULT_MAX_ENTRIES);
+    }
+
+    public ImageHashIndex(File file, int maxEntries) {
+        this.file = file;
+        this.maxEntries = maxEntries;
+    }
+
+    public static synchronized ImageHashIndex get(Context context) {
+        if (shared == null) {
+            shared = new ImageHashIndex(new File(context.getApplicationContext().getFilesDir(), "image_hashes"));
+        }
+        return shared;
+    }
+
+    /**
+     * Hex SHA-256 of everything in, read in a streaming pass
+     */
+    public static String sha256(InputStream in) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is always available on Android
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * URL uploaded for hash, or null when the image is not known
+     */
+    public synchronized String lookup(String hash) {
+        return entries().get(hash);
+    }
+
+    public synchronized void put(String hash, String url) throws IOException {
+        entries().put(hash, url);
+        save();
+    }
+
+    public synchronized void remove(String hash) throws IOException {
+        if (entries().remove(hash) != null) {
+            save();
+        }
+    }
+
+    public synchronized int size() {
+        return entries().size();
+    }
+
+    private Map<String, String> entries() {
+        if (entries == null) {
+            entries = new LinkedHashMap<String, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+            load();
+        }
+        return entries;
+    }
+
+    private void load() {
+        if (!file.exists()) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != FORMAT_VERSION) return;
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                entries.put(in.readUTF(), in.readUTF());
+            }
+        } catch (IOException e) {
+            // Corrupt or truncated: keep what was read, the rest will be uploaded again
+        }
+    }
+
+    private void save() throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+
+        // Eldest first, so reading back restores the access order
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+        }
+
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not replace " + file);
+        }
+    }
+}
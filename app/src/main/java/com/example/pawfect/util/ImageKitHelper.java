@@ -4,25 +4,27 @@ import android.content.Context;
 import android.net.Uri;
 import android.util.Log;
 
+import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import okhttp3.Call;
-import okhttp3.Callback;
-import okhttp3.MediaType;
 import okhttp3.MultipartBody;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
-import okhttp3.Response;
 
 /**
  * Helper class for uploading images to ImageKit using REST API
  * 
- * Uses ImageKit's REST API directly via OkHttp for reliable uploads
+ * Uses ImageKit's REST API directly via OkHttp for reliable uploads. Transient
+ * failures are retried with backoff by UploadEngine. ImageKit's upload API has no
+ * resumable or chunked mode, so a retry always sends the whole file again; images
+ * that were uploaded before are recognised by content hash and not sent at all.
  */
 public class ImageKitHelper {
     
@@ -33,130 +35,207 @@ public class ImageKitHelper {
     private static final String IMAGEKIT_UPLOAD_URL = "https://upload.imagekit.io/api/v1/files/upload";
     
     private static final String TAG = "ImageKitHelper";
-    private static final OkHttpClient client = new OkHttpClient();
+    private static UploadEngine uploadEngine;
+    private static final ExecutorService uploadExecutor = Executors.newCachedThreadPool();
     
     public interface UploadCallback {
         void onSuccess(String imageUrl);
         void onError(String error);
+        
+        /**
+         * Called on the upload thread as bytes are sent; contentLength is -1 when unknown
+         */
+        default void onProgress(long bytesWritten, long contentLength) {
+        }
     }
     
     /**
-     * Upload an image to ImageKit using REST API
+     * Upload an image to ImageKit using REST API, downscaled and re-encoded with the
+     * default ImageEncoder options
      * @param context Android context
      * @param imageUri URI of the image to upload
      * @param callback Callback for upload result
      */
     public static void uploadImage(Context context, Uri imageUri, UploadCallback callback) {
-        try {
-            // Convert URI to File
-            File imageFile = uriToFile(context, imageUri);
-            if (imageFile == null) {
-                callback.onError("Failed to read image file");
-                return;
+        uploadImage(context, imageUri, new ImageEncoder.Options(), callback);
+    }
+    
+    /**
+     * Upload an image to ImageKit using REST API on a background thread
+     * @param context Android context
+     * @param imageUri URI of the image to upload
+     * @param encoderOptions How to re-encode the image, or null to upload the original bytes
+     * @param callback Callback for upload result, called on the upload thread
+     */
+    public static void uploadImage(Context context, Uri imageUri, ImageEncoder.Options encoderOptions, UploadCallback callback) {
+        uploadExecutor.execute(() -> {
+            try {
+                String imageUrl = uploadImageBlocking(context, imageUri, encoderOptions, callback::onProgress);
+                callback.onSuccess(imageUrl);
+            } catch (UploadEngine.HttpException e) {
+                Log.e(TAG, "Upload failed: " + e.code + " - " + e.body);
+                callback.onError("Upload failed: " + e.code + " - " + e.body);
+            } catch (Exception e) {
+                Log.e(TAG, "Upload failed", e);
+                callback.onError("Upload failed: " + e.getMessage());
             }
+        });
+    }
+    
+    /**
+     * Upload an image to ImageKit, retrying transient failures, and return its URL.
+     * Blocks until done; never call it on the main thread.
+     */
+    public static String uploadImageBlocking(Context context, Uri imageUri, ImageEncoder.Options encoderOptions,
+                                             UploadEngine.ProgressListener progressListener) throws IOException {
+        return uploadTask(context, imageUri, encoderOptions, progressListener).execute();
+    }
+    
+    /**
+     * Upload several images at once, at most maxConcurrent in parallel; run the batch
+     * with UploadCoordinator.uploadAll and the URLs come back in the order of the tasks
+     */
+    public static UploadCoordinator newCoordinator(int maxConcurrent) {
+        return new UploadCoordinator(uploadExecutor, maxConcurrent);
+    }
+    
+    /**
+     * Prepare the upload of one image; nothing is read or sent until the task is executed.
+     * 
+     * The image is hashed first in a streaming pass over the source. An image uploaded
+     * before is found in ImageHashIndex and its URL returned without sending anything;
+     * a new one is named after its content, so uploading it twice (e.g. after the index
+     * was evicted) overwrites the same file instead of creating a copy.
+     */
+    public static UploadCoordinator.Task uploadTask(Context context, Uri imageUri, ImageEncoder.Options encoderOptions,
+                                                    UploadEngine.ProgressListener progressListener) {
+        final Context appContext = context.getApplicationContext();
+        return new UploadCoordinator.Task() {
+            private volatile boolean canceled;
+            private volatile UploadEngine.Upload upload;
             
-            // Generate unique file name
-            String fileName = "pet_" + System.currentTimeMillis() + ".jpg";
-            String folderPath = "/pawfect_match/pets/";
-            
-            // Create multipart request body
-            RequestBody fileBody = RequestBody.create(
-                MediaType.parse("image/jpeg"),
-                imageFile
-            );
-            
-            // Create multipart request body
-            MultipartBody.Builder multipartBuilder = new MultipartBody.Builder()
-                .setType(MultipartBody.FORM)
-                .addFormDataPart("file", fileName, fileBody)
-                .addFormDataPart("fileName", fileName)
-                .addFormDataPart("folder", folderPath)
-                .addFormDataPart("useUniqueFileName", "true");
-            
-            RequestBody requestBody = multipartBuilder.build();
-            
-            // ImageKit server-side upload uses Basic Auth: username = private key, password = empty
-            String credentials = IMAGEKIT_PRIVATE_KEY + ":";
-            String authHeader = "Basic " + android.util.Base64.encodeToString(
-                credentials.getBytes("UTF-8"),
-                android.util.Base64.NO_WRAP
-            );
-            
-            // Build request with Basic Authentication
-            Request request = new Request.Builder()
-                .url(IMAGEKIT_UPLOAD_URL)
-                .addHeader("Authorization", authHeader)
-                .post(requestBody)
-                .build();
-            
-            // Execute request
-            client.newCall(request).enqueue(new Callback() {
-                @Override
-                public void onFailure(Call call, java.io.IOException e) {
-                    Log.e(TAG, "Upload failed", e);
-                    callback.onError("Upload failed: " + e.getMessage());
+            @Override
+            public String execute() throws IOException {
+                String fileName = contentFileName(appContext, imageUri, encoderOptions);
+                ImageHashIndex index = ImageHashIndex.get(appContext);
+                String knownUrl = index.lookup(fileName);
+                if (knownUrl != null) {
+                    Log.d(TAG, "Already uploaded: " + knownUrl);
+                    return knownUrl;
                 }
+                if (canceled) throw new InterruptedIOException("Upload canceled");
+                
+                UploadEngine.Upload current = newUpload(appContext, imageUri, encoderOptions, fileName, progressListener);
+                upload = current;
+                // cancel() may have raced with the assignment above
+                if (canceled) current.cancel();
                 
-                @Override
-                public void onResponse(Call call, Response response) throws java.io.IOException {
-                    if (response.isSuccessful()) {
-                        String responseBody = response.body().string();
-                        Log.d(TAG, "Upload response: " + responseBody);
-                        
-                        try {
-                            // Parse JSON response
-                            JSONObject jsonResponse = new JSONObject(responseBody);
-                            String imageUrl = jsonResponse.optString("url");
-                            
-                            if (imageUrl != null && !imageUrl.isEmpty()) {
-                                Log.d(TAG, "Upload successful: " + imageUrl);
-                                callback.onSuccess(imageUrl);
-                            } else {
-                                callback.onError("Failed to get image URL from response");
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error parsing response", e);
-                            callback.onError("Error parsing upload response: " + e.getMessage());
-                        }
-                    } else {
-                        String errorBody = response.body() != null ? response.body().string() : "Unknown error";
-                        Log.e(TAG, "Upload failed: " + response.code() + " - " + errorBody);
-                        callback.onError("Upload failed: " + response.code() + " - " + errorBody);
-                    }
+                String responseBody = current.execute();
+                Log.d(TAG, "Upload response: " + responseBody);
+                String imageUrl = parseImageUrl(responseBody);
+                try {
+                    index.put(fileName, imageUrl);
+                } catch (IOException e) {
+                    // Only costs a repeat upload later
+                    Log.w(TAG, "Could not record upload of " + fileName, e);
                 }
-            });
+                return imageUrl;
+            }
             
-        } catch (Exception e) {
-            Log.e(TAG, "Error uploading image", e);
-            callback.onError("Error: " + e.getMessage());
-        }
+            @Override
+            public void cancel() {
+                canceled = true;
+                UploadEngine.Upload current = upload;
+                if (current != null) current.cancel();
+            }
+        };
     }
     
     /**
-     * Convert URI to File
+     * File name derived from the source's SHA-256 and, for re-encoded uploads, the
+     * encoder settings, so each distinct output has its own stable name
      */
-    private static File uriToFile(Context context, Uri uri) {
+    private static String contentFileName(Context context, Uri imageUri, ImageEncoder.Options encoderOptions) throws IOException {
+        String hash;
+        try (InputStream in = context.getContentResolver().openInputStream(imageUri)) {
+            if (in == null) {
+                throw new IOException("Cannot open " + imageUri);
+            }
+            hash = ImageHashIndex.sha256(in);
+        }
+        
+        // 128 bits of the hash are plenty to tell our images apart
+        String name = "pet_" + hash.substring(0, 32);
+        if (encoderOptions != null) {
+            return name + "_" + encoderOptions.maxEdge + "q" + encoderOptions.quality + encoderOptions.extension();
+        }
+        return name + ".jpg";
+    }
+    
+    private static UploadEngine.Upload newUpload(Context context, Uri imageUri, ImageEncoder.Options encoderOptions,
+                                                 String fileName, UploadEngine.ProgressListener progressListener) {
+        String folderPath = "/pawfect_match/pets/";
+        RequestBody fileBody;
+        
+        if (encoderOptions != null) {
+            // Decoding and compression happen while the body is written
+            fileBody = ImageEncoder.requestBody(context, imageUri, encoderOptions);
+        } else {
+            // Stream the original bytes straight from the content provider
+            fileBody = new UriRequestBody(context, imageUri);
+        }
+        
+        RequestBody requestBody = buildUploadBody(fileBody, fileName, folderPath);
+        
+        // ImageKit server-side upload uses Basic Auth: username = private key, password = empty
+        String credentials = IMAGEKIT_PRIVATE_KEY + ":";
+        String authHeader = "Basic " + android.util.Base64.encodeToString(
+            credentials.getBytes(StandardCharsets.UTF_8),
+            android.util.Base64.NO_WRAP
+        );
+        
+        // Build request with Basic Authentication
+        Request request = new Request.Builder()
+            .url(IMAGEKIT_UPLOAD_URL)
+            .addHeader("Authorization", authHeader)
+            .post(requestBody)
+            .build();
+        
+        return uploadEngine(context).newUpload(request, progressListener);
+    }
+    
+    private static synchronized UploadEngine uploadEngine(Context context) {
+        if (uploadEngine == null) {
+            uploadEngine = new UploadEngine(HttpClients.get(context), new UploadEngine.RetryPolicy());
+        }
+        return uploadEngine;
+    }
+    
+    private static String parseImageUrl(String responseBody) throws IOException {
         try {
-            InputStream inputStream = context.getContentResolver().openInputStream(uri);
-            if (inputStream == null) return null;
-            
-            File tempFile = File.createTempFile("upload_", ".jpg", context.getCacheDir());
-            FileOutputStream outputStream = new FileOutputStream(tempFile);
-            
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
+            // Parse JSON response
+            String imageUrl = new JSONObject(responseBody).optString("url");
+            if (imageUrl.isEmpty()) {
+                throw new IOException("Failed to get image URL from response");
             }
-            
-            outputStream.close();
-            inputStream.close();
-            
-            return tempFile;
-        } catch (Exception e) {
-            Log.e(TAG, "Error converting URI to file", e);
-            return null;
+            Log.d(TAG, "Upload successful: " + imageUrl);
+            return imageUrl;
+        } catch (JSONException e) {
+            throw new IOException("Error parsing upload response: " + e.getMessage(), e);
         }
     }
+    
+    /**
+     * Build the multipart form ImageKit's upload endpoint expects. File names are
+     * content-addressed, so ImageKit must keep them as they are.
+     */
+    public static MultipartBody buildUploadBody(RequestBody fileBody, String fileName, String folderPath) {
+        return new MultipartBody.Builder()
+            .setType(MultipartBody.FORM)
+            .addFormDataPart("file", fileName, fileBody)
+            .addFormDataPart("fileName", fileName)
+            .addFormDataPart("folder", folderPath)
+            .addFormDataPart("useUniqueFileName", "false")
+            .build();
+    }
 }
-
@@ -0,0 +1,91 @@
+package com.example.pawfect.util;
+
+/**
+ * Builds ImageKit URLs that ask the CDN to resize and re-encode an image, so each
+ * screen downloads a copy sized for its view instead of the original upload.
+ *
+ * Sizes are rounded up to SIZE_STEP pixels, so views of nearly the same size share
+ * one CDN variant and one Glide cache entry. URLs not served by ImageKit, or that
+ * already carry a transformation, are returned unchanged.
+ */
+public final class ImageKitUrl {
+
+    static final String IMAGEKIT_HOST = "ik.imagekit.io";
+    static final int SIZE_STEP = 32;
+
+    private final String url;
+    private int width;
+    private int height;
+    private int quality = 75;
+    // Glide does not send an Accept header that would let f-auto pick WebP itself
+    private String format = "webp";
+
+    private ImageKitUrl(String url) {
+        this.url = url;
+    }
+
+    public static ImageKitUrl of(String url) {
+        return new ImageKitUrl(url);
+    }
+
+    /**
+     * Shorthand for a thumbnail of the given size in pixels
+     */
+    public static String sized(String url, int widthPx, int heightPx) {
+        return of(url).width(widthPx).height(heightPx).build();
+    }
+
+    /**
+     * Target width in physical pixels, i.e. dp times the display density; 0 to keep
+     */
+    public ImageKitUrl width(int widthPx) {
+        this.width = widthPx;
+        return this;
+    }
+
+    public ImageKitUrl height(int heightPx) {
+        this.height = heightPx;
+        return this;
+    }
+
+    public ImageKitUrl quality(int quality) {
+        this.quality = quality;
+        return this;
+    }
+
+    /**
+     * Output format such as "webp", "jpg" or "auto"; null keeps the original
+     */
+    public ImageKitUrl format(String format) {
+        this.format = format;
+        return this;
+    }
+
+    public String build() {
+        if (url == null || !isTransformable(url)) return url;
+
+        StringBuilder transform = new StringBuilder();
+        if (width > 0) append(transform, "w-" + roundUp(width));
+        if (height > 0) append(transform, "h-" + roundUp(height));
+        if (quality > 0) append(transform, "q-" + quality);
+        if (format != null) append(transform, "f-" + format);
+        if (transform.length() == 0) return url;
+
+        return url + (url.indexOf('?') >= 0 ? '&' : '?') + "tr=" + transform;
+    }
+
+    private static boolean isTransformable(String url) {
+        return url.contains("://" + IMAGEKIT_HOST + "/")
+                && !url.contains("tr=")
+                && !url.contains("/tr:");
+    }
+
+    private static void append(StringBuilder transform, String parameter) {
+        if (transform.length() > 0) transform.append(',');
+        transform.append(parameter);
+    }
+
+    static int roundUp(int px) {
+        return (px + SIZE_STEP - 1) / SIZE_STEP * SIZE_STEP;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.pawfect.util;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.integration.okhttp3.OkHttpUrlLoader;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.module.AppGlideModule;
+
+import java.io.InputStream;
+
+/**
+ * App-wide Glide configuration.
+ *
+ * Image fetches go through the shared HttpClients client instead of Glide's own
+ * HttpURLConnection stack. The memory cache and bitmap pool are sized by device class
+ * and count their hits and misses in ImageCacheStats.
+ */
+@GlideModule
+public class PawfectGlideModule extends AppGlideModule {
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+
+        // Budgets are in screens' worth of ARGB_8888 pixels
+        MemorySizeCalculator.Builder sizes = new MemorySizeCalculator.Builder(context);
+        if (activityManager.isLowRamDevice()) {
+            sizes.setMemoryCacheScreens(1).setBitmapPoolScreens(1);
+        } else if (activityManager.getMemoryClass() >= 256) {
+            sizes.setMemoryCacheScreens(3).setBitmapPoolScreens(3);
+        } else {
+            sizes.setMemoryCacheScreens(2).setBitmapPoolScreens(2);
+        }
+        MemorySizeCalculator calculator = sizes.build();
+
+        LruBitmapPool bitmapPool = new LruBitmapPool(calculator.getBitmapPoolSize());
+        ImageCacheStats.setBitmapPool(bitmapPool);
+        builder.setBitmapPool(bitmapPool);
+        builder.setMemoryCache(new CountingResourceCache(calculator.getMemoryCacheSize()));
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.replace(GlideUrl.class, InputStream.class,
+                new OkHttpUrlLoader.Factory(HttpClients.get(context)));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+
+    /**
+     * The engine looks resources up with remove(), so that is where hits are counted
+     */
+    private static class CountingResourceCache extends LruResourceCache {
+
+        CountingResourceCache(long size) {
+            super(size);
+        }
+
+        @Nullable
+        @Override
+        public synchronized Resource<?> remove(@NonNull Key key) {
+            Resource<?> resource = super.remove(key);
+            ImageCacheStats.recordMemoryLookup(resource != null);
+            return resource;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.pawfect.util;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+
+/**
+ * Wraps a RequestBody and reports how many of its bytes have been written. Every
+ * writeTo starts counting from zero again, so a retried upload reports from the start.
+ */
+public class ProgressRequestBody extends RequestBody {
+
+    private final RequestBody delegate;
+    private final UploadEngine.ProgressListener listener;
+
+    public ProgressRequestBody(RequestBody delegate, UploadEngine.ProgressListener listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        final long contentLength = contentLength();
+        BufferedSink countingSink = Okio.buffer(new ForwardingSink(sink) {
+            private long bytesWritten = 0;
+
+            @Override
+            public void write(Buffer source, long byteCount) throws IOException {
+                super.write(source, byteCount);
+                bytesWritten += byteCount;
+                listener.onProgress(bytesWritten, contentLength);
+            }
+        });
+        delegate.writeTo(countingSink);
+        countingSink.flush();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.pawfect.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a batch of uploads concurrently, at most maxConcurrent at a time, and returns
+ * their results in the order of the tasks.
+ *
+ * The first failure cancels every other task, as does cancel(), so a batch never
+ * leaves uploads running in the background. Use one coordinator per batch.
+ */
+public class UploadCoordinator {
+
+    public static final int DEFAULT_MAX_CONCURRENT = 3;
+
+    public interface Task {
+        /**
+         * Run the upload and return its result, e.g. the uploaded file's URL
+         */
+        String execute() throws IOException;
+
+        void cancel();
+    }
+
+    public interface Listener {
+        /**
+         * Called on an upload thread each time a task finishes successfully
+         */
+        void onTaskDone(int completed, int total);
+    }
+
+    private final Executor executor;
+    private final int maxConcurrent;
+    private volatile List<? extends Task> tasks;
+    private volatile boolean canceled;
+    private Exception failure;
+
+    public UploadCoordinator(Executor executor, int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        this.executor = executor;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Run all tasks and block until they are done. Throws the first failure, or an
+     * InterruptedIOException if the batch was canceled.
+     */
+    public List<String> uploadAll(List<? extends Task> batch, Listener listener) throws IOException {
+        this.tasks = batch;
+        if (canceled) cancelTasks();
+
+        final int total = batch.size();
+        final String[] results = new String[total];
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+
+        // A few runners pull tasks off a shared index, so the cap holds without
+        // parking a thread per task
+        int runners = Math.min(maxConcurrent, total);
+        final CountDownLatch finished = new CountDownLatch(runners);
+        for (int r = 0; r < runners; r++) {
+            executor.execute(() -> {
+                try {
+                    int index;
+                    while (!canceled && (index = nextIndex.getAndIncrement()) < total) {
+                        results[index] = batch.get(index).execute();
+                        int done = completed.incrementAndGet();
+                        if (listener != null) listener.onTaskDone(done, total);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    fail(e);
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrupted");
+        }
+
+        synchronized (this) {
+            if (failure instanceof IOException) throw (IOException) failure;
+            if (failure != null) throw (RuntimeException) failure;
+        }
+        if (canceled) throw new InterruptedIOException("Upload canceled");
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * Cancel the batch, including uploads already in flight. Safe from any thread.
+     */
+    public void cancel() {
+        canceled = true;
+        cancelTasks();
+    }
+
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    private void fail(Exception e) {
+        synchronized (this) {
+            // Failures caused by our own cancel() are not interesting
+            if (failure != null || canceled) return;
+            failure = e;
+        }
+        cancel();
+    }
+
+    private void cancelTasks() {
+        List<? extends Task> current = tasks;
+        if (current == null) return;
+        for (Task task : current) {
+            task.cancel();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.pawfect.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Runs uploads with retries and exponential backoff.
+ *
+ * Connection failures and 408/429/5xx responses are retried up to maxAttempts times,
+ * honouring Retry-After when the server sends one. Other HTTP errors fail at once with
+ * an HttpException. Uploads are blocking; run them off the main thread.
+ */
+public class UploadEngine {
+
+    public interface ProgressListener {
+        void onProgress(long bytesWritten, long contentLength);
+    }
+
+    public static class RetryPolicy {
+        public int maxAttempts = 4;
+        public long initialBackoffMs = 1000;
+        public double backoffMultiplier = 2.0;
+        public long maxBackoffMs = 16_000;
+        // Each delay is randomised by up to this fraction so clients do not retry in lockstep
+        public double jitter = 0.2;
+
+        long backoffMs(int failedAttempts, Random random) {
+            double delay = initialBackoffMs * Math.pow(backoffMultiplier, failedAttempts - 1);
+            delay = Math.min(delay, maxBackoffMs);
+            delay *= 1 + jitter * (2 * random.nextDouble() - 1);
+            return Math.max(0, (long) delay);
+        }
+    }
+
+    public static class HttpException extends IOException {
+        public final int code;
+        public final String body;
+
+        public HttpException(int code, String body) {
+            super("HTTP " + code + " - " + body);
+            this.code = code;
+            this.body = body;
+        }
+    }
+
+    private final OkHttpClient client;
+    private final RetryPolicy policy;
+    private final Random random = new Random();
+
+    public UploadEngine(OkHttpClient client, RetryPolicy policy) {
+        this.client = client;
+        this.policy = policy;
+    }
+
+    public Upload newUpload(Request request, ProgressListener listener) {
+        if (listener != null && request.body() != null) {
+            request = request.newBuilder()
+                    .method(request.method(), new ProgressRequestBody(request.body(), listener))
+                    .build();
+        }
+        return new Upload(request);
+    }
+
+    public static boolean isRetryable(int code) {
+        return code == 408 || code == 429 || code >= 500;
+    }
+
+    public class Upload {
+        private final Request request;
+        private final CountDownLatch canceled = new CountDownLatch(1);
+        private volatile Call call;
+
+        Upload(Request request) {
+            this.request = request;
+        }
+
+        /**
+         * Send the request, retrying as the policy allows, and return the response body
+         */
+        public String execute() throws IOException {
+            IOException lastFailure = null;
+
+            for (int attempt = 1; attempt <= policy.maxAttempts; attempt++) {
+                if (isCanceled()) throw new InterruptedIOException("Upload canceled");
+
+                Call attemptCall = client.newCall(request);
+                call = attemptCall;
+                // cancel() may have raced with the assignment above
+                if (isCanceled()) attemptCall.cancel();
+
+                long retryAfterMs = 0;
+                try (Response response = attemptCall.execute()) {
+                    String body = response.body() != null ? response.body().string() : "";
+                    if (response.isSuccessful()) {
+                        return body;
+                    }
+                    HttpException failure = new HttpException(response.code(), body);
+                    if (!isRetryable(response.code())) {
+                        throw failure;
+                    }
+                    lastFailure = failure;
+                    retryAfterMs = parseRetryAfterMs(response.header("Retry-After"));
+                } catch (HttpException e) {
+                    throw e;
+                } catch (IOException e) {
+                    if (isCanceled()) throw new InterruptedIOException("Upload canceled");
+                    lastFailure = e;
+                }
+
+                if (attempt < policy.maxAttempts) {
+                    sleep(Math.max(retryAfterMs, policy.backoffMs(attempt, random)));
+                }
+            }
+            throw lastFailure;
+        }
+
+        public void cancel() {
+            canceled.countDown();
+            Call current = call;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        public boolean isCanceled() {
+            return canceled.getCount() == 0;
+        }
+
+        private void sleep(long delayMs) throws IOException {
+            try {
+                if (canceled.await(delayMs, TimeUnit.MILLISECONDS)) {
+                    throw new InterruptedIOException("Upload canceled");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Upload interrupted");
+            }
+        }
+    }
+
+    private static long parseRetryAfterMs(String retryAfter) {
+        if (retryAfter == null) return 0;
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            // HTTP-date form: fall back to our own backoff
+            return 0;
+        }
+    }
+}
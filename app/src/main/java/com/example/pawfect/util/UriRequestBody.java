@@ -0,0 +1,87 @@
+package com.example.pawfect.util;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.OpenableColumns;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * RequestBody that streams a content URI straight into the request, without copying
+ * it to a temp file first. The length is reported when the provider knows it so the
+ * upload is not sent chunked.
+ */
+public class UriRequestBody extends RequestBody {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ContentResolver resolver;
+    private final Uri uri;
+    private final MediaType mediaType;
+    private long contentLength = -2; // not queried yet
+
+    public UriRequestBody(Context context, Uri uri) {
+        this.resolver = context.getApplicationContext().getContentResolver();
+        this.uri = uri;
+        String mimeType = resolver.getType(uri);
+        this.mediaType = MediaType.parse(mimeType != null ? mimeType : "image/jpeg");
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        // Queried lazily so it happens on OkHttp's thread, not the caller's
+        if (contentLength == -2) {
+            contentLength = queryLength(resolver, uri);
+        }
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        try (InputStream in = resolver.openInputStream(uri)) {
+            if (in == null) {
+                throw new IOException("Cannot open " + uri);
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                sink.write(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Size in bytes as reported by the provider, or -1 when unknown
+     */
+    private static long queryLength(ContentResolver resolver, Uri uri) {
+        try (Cursor cursor = resolver.query(uri, new String[] {OpenableColumns.SIZE}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+        } catch (RuntimeException e) {
+            // Some providers do not support queries; fall through to the descriptor
+        }
+
+        try (AssetFileDescriptor descriptor = resolver.openAssetFileDescriptor(uri, "r")) {
+            if (descriptor != null) {
+                return descriptor.getLength();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Unknown length: OkHttp sends the body chunked
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.pawfect.work;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * What a queued PetSaveWorker job saves: the pet, the version an edit started from and
+ * the picked photos.
+ *
+ * Stored in a file per job rather than in the work's input Data, which WorkManager
+ * caps at 10 KB; a long description alone can exceed that. Written to a temp file that
+ * is renamed into place, like PetDiskCache.
+ */
+final class PetSaveJob {
+
+    private static final int MAGIC = 0x50534A42; // "PSJB"
+
+    final Pet pet;
+    final Pet base; // null for a new pet
+    final String[] photoUris;
+
+    PetSaveJob(Pet pet, Pet base, String[] photoUris) {
+        this.pet = pet;
+        this.base = base;
+        this.photoUris = photoUris;
+    }
+
+    void write(File file) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(PetCodec.FORMAT_VERSION);
+            PetCodec.write(pet, out);
+            out.writeBoolean(base != null);
+            if (base != null) {
+                PetCodec.write(base, out);
+            }
+            out.writeInt(photoUris.length);
+            for (String uri : photoUris) {
+                out.writeUTF(uri);
+            }
+        }
+
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    static PetSaveJob read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != PetCodec.FORMAT_VERSION) {
+                throw new IOException("Unknown job format in " + file);
+            }
+            Pet pet = PetCodec.read(in);
+            Pet base = in.readBoolean() ? PetCodec.read(in) : null;
+            String[] photoUris = new String[in.readInt()];
+            for (int i = 0; i < photoUris.length; i++) {
+                photoUris[i] = in.readUTF();
+            }
+            return new PetSaveJob(pet, base, photoUris);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.pawfect.work;
+
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.example.pawfect.data.PetWriter;
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetCodec;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent queue of "upload photos, then save pet" jobs, run by PetSaveWorker. Edits
+ * are queued here even without photos, since their transaction needs the server.
+ *
+ * Jobs survive the activity and the process, wait for a network connection and are
+ * retried with exponential backoff. Each job is unique-named after a hash of the form:
+ * the pet's fields and the picked images' URIs, so submitting the same form twice
+ * (e.g. a double tap) queues it once. What the job saves is kept in a PetSaveJob file
+ * under that name; only the name goes into the work's input Data.
+ */
+public final class PetSaveQueue {
+
+    public static final String TAG = "pet-save";
+
+    private static final long BACKOFF_SECONDS = 10;
+    private static final String JOBS_DIR = "pet_save_jobs";
+
+    private PetSaveQueue() {
+    }
+
+    /**
+     * Queue pet to be saved once photoUris are uploaded; their URLs replace the pet's
+     * photoUrls. For an edit, base is the version the edit started from and only the
+     * changed fields are written; it is null for a new pet. Returns the id of the pet,
+     * assigned here for new pets.
+     *
+     * Throws IOException when the job cannot be stored.
+     */
+    public static String enqueue(Context context, FirebaseFirestore db, Pet base, Pet pet, List<Uri> photoUris)
+            throws IOException {
+        String[] uris = new String[photoUris.size()];
+        for (int i = 0; i < uris.length; i++) {
+            uris[i] = photoUris.get(i).toString();
+        }
+
+        // Hashed before a new pet gets its random id, so identical submissions collide
+        String uniqueName = TAG + "-" + formHash(PetCodec.encode(pet), uris);
+        File jobFile = jobFile(context, uniqueName);
+        // The same form may be queued already; keep the id it was given
+        Pet withId = jobFile.exists() ? PetSaveJob.read(jobFile).pet : PetWriter.assignId(db, pet);
+        jobFile.getParentFile().mkdirs();
+        new PetSaveJob(withId, base, uris).write(jobFile);
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(PetSaveWorker.class)
+                .setInputData(new Data.Builder()
+                        .putString(PetSaveWorker.KEY_JOB, uniqueName)
+                        .build())
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .addTag(TAG)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniqueWork(uniqueName, ExistingWorkPolicy.KEEP, request);
+        return withId.getId();
+    }
+
+    static File jobFile(Context context, String name) {
+        return new File(new File(context.getApplicationContext().getFilesDir(), JOBS_DIR), name);
+    }
+
+    static String formHash(byte[] pet, String[] uris) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(pet);
+            for (String uri : uris) {
+                digest.update((byte) 0);
+                digest.update(uri.getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is always available on Android
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.pawfect.work;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.pawfect.R;
+import com.example.pawfect.data.FirestoreConfig;
+import com.example.pawfect.data.PetWriter;
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.util.ImageEncoder;
+import com.example.pawfect.util.ImageKitHelper;
+import com.example.pawfect.util.UploadCoordinator;
+import com.example.pawfect.util.UploadEngine;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Uploads a queued pet's photos to ImageKit, then writes the pet to Firestore.
+ *
+ * Runs on WorkManager's executor, which PawfectApp bounds so only a couple of jobs
+ * run at once; within a job the photos upload in parallel through UploadCoordinator.
+ * A retry starts the job over, but photos that already made it are recognised by
+ * their content hash and not uploaded again.
+ */
+public class PetSaveWorker extends Worker {
+
+    static final String KEY_JOB = "job";
+
+    private static final String TAG = "PetSaveWorker";
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int MAX_PARALLEL_UPLOADS = UploadCoordinator.DEFAULT_MAX_CONCURRENT;
+
+    private volatile UploadCoordinator coordinator;
+
+    public PetSaveWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        File jobFile = PetSaveQueue.jobFile(getApplicationContext(), getInputData().getString(KEY_JOB));
+        PetSaveJob job;
+        try {
+            job = PetSaveJob.read(jobFile);
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Could not read queued pet", e);
+            jobFile.delete();
+            return Result.failure();
+        }
+
+        Result result = save(job);
+        // A retry reads the job again; otherwise it is done with
+        if (!(result instanceof Result.Retry)) {
+            jobFile.delete();
+        }
+        return result;
+    }
+
+    private Result save(PetSaveJob job) {
+        Pet pet = job.pet;
+        Pet base = job.base;
+        String[] uris = job.photoUris;
+        if (uris.length > 0) {
+            try {
+                pet = pet.toBuilder().photoUrls(uploadPhotos(uris)).build();
+            } catch (UploadEngine.HttpException e) {
+                Log.e(TAG, "Upload failed: " + e.code + " - " + e.body);
+                return UploadEngine.isRetryable(e.code) ? retryOrFail() : fail();
+            } catch (SecurityException e) {
+                // Read permission on a picked image is gone; retrying will not help
+                Log.e(TAG, "Lost access to a picked image", e);
+                return fail();
+            } catch (IOException e) {
+                if (isStopped()) return Result.retry();
+                Log.e(TAG, "Upload failed", e);
+                return retryOrFail();
+            }
+        }
+
+        try {
+            FirebaseFirestore db = FirestoreConfig.get();
+            Tasks.await(base != null ? PetWriter.update(db, base, pet) : PetWriter.save(db, pet));
+        } catch (ExecutionException e) {
+            if (PetWriter.isEditConflict((Exception) e.getCause())) {
+                Log.w(TAG, "Pet " + pet.getId() + " was edited elsewhere");
+                return fail(R.string.edited_elsewhere);
+            }
+            Log.e(TAG, "Could not save pet " + pet.getId(), e.getCause());
+            return retryOrFail();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+        return Result.success();
+    }
+
+    @Override
+    public void onStopped() {
+        // Canceled by the user or the constraints no longer hold: stop uploading now
+        UploadCoordinator current = coordinator;
+        if (current != null) current.cancel();
+    }
+
+    /**
+     * Upload all photos in parallel and return their URLs in the same order
+     */
+    private List<String> uploadPhotos(String[] uris) throws IOException {
+        Context context = getApplicationContext();
+        ImageEncoder.Options options = new ImageEncoder.Options();
+        List<UploadCoordinator.Task> tasks = new ArrayList<>(uris.length);
+        for (String uri : uris) {
+            tasks.add(ImageKitHelper.uploadTask(context, Uri.parse(uri), options, null));
+        }
+
+        coordinator = ImageKitHelper.newCoordinator(MAX_PARALLEL_UPLOADS);
+        if (isStopped()) coordinator.cancel();
+        return coordinator.uploadAll(tasks, null);
+    }
+
+    private Result retryOrFail() {
+        return getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : fail();
+    }
+
+    private Result fail() {
+        return fail(R.string.save_failed);
+    }
+
+    private Result fail(int messageRes) {
+        // The form is long closed, so this is the only place the user hears about it
+        Context context = getApplicationContext();
+        new Handler(Looper.getMainLooper()).post(() ->
+                Toast.makeText(context, messageRes, Toast.LENGTH_LONG).show());
+        return Result.failure();
+    }
+}
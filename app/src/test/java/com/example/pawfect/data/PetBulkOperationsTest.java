@@ -0,0 +1,34 @@
+package com.example.pawfect.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PetBulkOperationsTest {
+
+    @Test
+    public void chunk_splitsIntoBatchSizedParts() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1201; i++) {
+            items.add(i);
+        }
+
+        List<List<Integer>> chunks = PetBulkOperations.chunk(items, PetBulkOperations.MAX_BATCH_SIZE);
+
+        assertEquals(3, chunks.size());
+        assertEquals(500, chunks.get(0).size());
+        assertEquals(500, chunks.get(1).size());
+        assertEquals(201, chunks.get(2).size());
+        assertEquals(Integer.valueOf(500), chunks.get(1).get(0));
+        assertEquals(Integer.valueOf(1200), chunks.get(2).get(200));
+    }
+
+    @Test
+    public void chunk_ofEmptyList_isEmpty() {
+        assertTrue(PetBulkOperations.chunk(Collections.emptyList(), 500).isEmpty());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Owner;
+import com.example.pawfect.model.Pet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PetDiskCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTripsPets() throws Exception {
+        PetDiskCache cache = new PetDiskCache(new File(folder.getRoot(), "pets.cache"));
+        Pet rex = Pet.builder()
+                .id("1")
+                .name("Rex")
+                .description("Good boy")
+                .type("Dog")
+                .ageMonths(36)
+                .race("Labrador")
+                .owner(new Owner("Sam", "sam@example.com", "555"))
+                .photoUrls(Arrays.asList("https://ik.imagekit.io/a.jpg"))
+                .updatedAt(42L)
+                .build();
+        Pet milo = Pet.builder().id("2").name("Milo").type("cat").build();
+
+        cache.write(Arrays.asList(rex, milo));
+
+        assertEquals(Arrays.asList(rex, milo), cache.read());
+    }
+
+    @Test
+    public void evictsPetsBeyondMaxEntries() throws Exception {
+        PetDiskCache cache = new PetDiskCache(new File(folder.getRoot(), "pets.cache"), 2);
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            pets.add(Pet.builder().id(String.valueOf(i)).name("Pet " + i).type("dog").build());
+        }
+
+        cache.write(pets);
+
+        assertEquals(pets.subList(0, 2), cache.read());
+    }
+
+    @Test
+    public void corruptFileReadsAsEmpty() throws Exception {
+        File file = new File(folder.getRoot(), "pets.cache");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] {1, 2, 3});
+        }
+
+        assertTrue(new PetDiskCache(file).read().isEmpty());
+    }
+}
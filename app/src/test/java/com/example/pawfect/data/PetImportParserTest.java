@@ -0,0 +1,114 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetType;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PetImportParserTest {
+
+    @Test
+    public void json_readsNestedAndFlatOwners() {
+        String json = "[{\"name\":\"Rex\",\"type\":\"Dog\",\"age\":3,\"race\":\"Beagle\","
+                + "\"owner\":{\"name\":\"Ann\",\"email\":\"ann@example.com\",\"phone\":\"0600\"},"
+                + "\"photoUrls\":[\"https://ik.imagekit.io/x/a.webp\"]},"
+                + "{\"name\":\"Luna\",\"type\":\"Cat\",\"ownerName\":\"Bob\",\"ownerEmail\":\"bob@example.com\"}]";
+
+        PetImportParser.Result result = PetImportParser.parse(json, "pets.json");
+
+        assertTrue(result.errors.isEmpty());
+        assertEquals(2, result.pets.size());
+        Pet rex = result.pets.get(0);
+        assertEquals(36, rex.getAgeMonths());
+        assertEquals(PetType.DOG, rex.getType());
+        assertEquals("ann@example.com", rex.getOwner().getEmail());
+        assertEquals(Arrays.asList("https://ik.imagekit.io/x/a.webp"), rex.getPhotoUrls());
+        assertNull(rex.getId());
+        assertEquals("Bob", result.pets.get(1).getOwner().getName());
+    }
+
+    @Test
+    public void json_acceptsWrapperObject() {
+        PetImportParser.Result result = PetImportParser.parse("{\"pets\":[{\"name\":\"Rex\",\"type\":\"Dog\"}]}", null);
+        assertEquals(1, result.pets.size());
+    }
+
+    @Test
+    public void json_reportsInvalidEntriesAndKeepsTheRest() {
+        PetImportParser.Result result = PetImportParser.parse(
+                "[{\"name\":\"Rex\",\"type\":\"Dog\"}, {\"name\":\"NoType\"}, 42]", null);
+
+        assertEquals(1, result.pets.size());
+        assertEquals(2, result.errors.size());
+        assertTrue(result.errors.get(0).startsWith("Entry 2"));
+    }
+
+    @Test
+    public void unrecognisedAge_isReported() {
+        PetImportParser.Result result = PetImportParser.parse("[{\"name\":\"Rex\",\"type\":\"Dog\",\"age\":\"old\"}]", null);
+
+        assertTrue(result.pets.isEmpty());
+        assertEquals(1, result.errors.size());
+    }
+
+    @Test
+    public void json_malformed_isReportedNotThrown() {
+        PetImportParser.Result result = PetImportParser.parse("[{\"name\":", null);
+        assertTrue(result.pets.isEmpty());
+        assertEquals(1, result.errors.size());
+    }
+
+    @Test
+    public void csv_mapsColumnsByHeader() {
+        String csv = "Type,Name,Age,ownerEmail,photoUrls\r\n"
+                + "Dog,Rex,3,ann@example.com,https://ik.imagekit.io/x/a.webp;https://ik.imagekit.io/x/b.webp\r\n"
+                + "Cat,Luna,,,\r\n";
+
+        PetImportParser.Result result = PetImportParser.parse(csv, "pets.csv");
+
+        assertTrue(result.errors.isEmpty());
+        assertEquals(2, result.pets.size());
+        Pet rex = result.pets.get(0);
+        assertEquals("Rex", rex.getName());
+        assertEquals("ann@example.com", rex.getOwner().getEmail());
+        assertEquals(2, rex.getPhotoUrls().size());
+        assertNull(result.pets.get(1).getOwner());
+    }
+
+    @Test
+    public void csv_handlesQuotedFields() {
+        String csv = "name,type,description\n\"Rex, Jr.\",Dog,\"Says \"\"woof\"\"\nevery morning\"\n";
+
+        PetImportParser.Result result = PetImportParser.parse(csv, null);
+
+        assertEquals(1, result.pets.size());
+        assertEquals("Rex, Jr.", result.pets.get(0).getName());
+        assertEquals("Says \"woof\"\nevery morning", result.pets.get(0).getDescription());
+    }
+
+    @Test
+    public void csv_reportsRowsWithoutRequiredFields() {
+        PetImportParser.Result result = PetImportParser.parse("name,type\nRex,Dog\n,Cat\n", null);
+
+        assertEquals(1, result.pets.size());
+        assertEquals(Arrays.asList("Row 3: name and type are required"), result.errors);
+    }
+
+    @Test
+    public void csv_withoutRequiredColumns_isRejected() {
+        PetImportParser.Result result = PetImportParser.parse("name,age\nRex,3\n", null);
+        assertTrue(result.pets.isEmpty());
+        assertEquals(1, result.errors.size());
+    }
+
+    @Test
+    public void readCsv_keepsEmptyTrailingField() {
+        List<List<String>> records = PetImportParser.readCsv("a,b,\n");
+        assertEquals(Arrays.asList(Arrays.asList("a", "b", "")), records);
+    }
+}
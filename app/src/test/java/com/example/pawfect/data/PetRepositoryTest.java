@@ -0,0 +1,138 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Pet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+public class PetRepositoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Executor direct = Runnable::run;
+    private final FakeRemote remote = new FakeRemote();
+    private final List<List<Pet>> delivered = new ArrayList<>();
+    private final List<Boolean> fromCache = new ArrayList<>();
+    private PetDiskCache cache;
+    private PetRepository repository;
+
+    @Before
+    public void setUp() {
+        cache = new PetDiskCache(new File(folder.getRoot(), "pets.cache"));
+        repository = new PetRepository(cache, remote, direct, direct);
+    }
+
+    @Test
+    public void coldCache_deliversNothingAndSkipsRemote() {
+        load();
+
+        assertTrue(delivered.isEmpty());
+        assertEquals(-1L, remote.lastUpdatedAfter);
+    }
+
+    @Test
+    public void warmCache_deliversCacheThenMergedChanges() throws Exception {
+        Pet rex = pet("1", "Rex", 10);
+        Pet milo = pet("2", "Milo", 20);
+        cache.write(Arrays.asList(rex, milo));
+
+        Pet renamedRex = pet("1", "Rexy", 30);
+        Pet luna = pet("3", "Luna", 40);
+        remote.changes = Arrays.asList(renamedRex, luna);
+
+        load();
+
+        assertEquals(20L, remote.lastUpdatedAfter);
+        assertEquals(Arrays.asList(true, false), fromCache);
+        assertEquals(Arrays.asList(rex, milo), delivered.get(0));
+        assertEquals(Arrays.asList(renamedRex, milo, luna), delivered.get(1));
+        assertEquals(delivered.get(1), cache.read());
+    }
+
+    @Test
+    public void warmCache_withoutChanges_deliversOnlyCache() throws Exception {
+        cache.write(Collections.singletonList(pet("1", "Rex", 10)));
+
+        load();
+
+        assertEquals(Collections.singletonList(true), fromCache);
+    }
+
+    @Test
+    public void merge_insertsNewPetsInIdOrder() {
+        Pet a = pet("a", "A", 10);
+        Pet c = pet("c", "C", 10);
+        Pet e = pet("e", "E", 10);
+        Pet b = pet("b", "B", 20);
+        Pet d = pet("d", "D", 20);
+        Pet f = pet("f", "F", 20);
+
+        assertEquals(Arrays.asList(a, b, c, d, e, f),
+                PetRepository.merge(Arrays.asList(a, c, e), Arrays.asList(f, d, b)));
+    }
+
+    @Test
+    public void save_replacesCache() {
+        List<Pet> pets = Arrays.asList(pet("1", "Rex", 10), pet("2", "Milo", 20));
+
+        repository.save(pets, true);
+
+        assertEquals(pets, cache.read());
+    }
+
+    @Test
+    public void save_dropsPetsDeletedFromTheRangeItCovers() throws Exception {
+        Pet rex = pet("1", "Rex", 10);
+        Pet milo = pet("2", "Milo", 20);
+        Pet luna = pet("3", "Luna", 30);
+        Pet bella = pet("4", "Bella", 40);
+        cache.write(Arrays.asList(rex, milo, luna, bella));
+
+        // Milo was deleted elsewhere; the pager has only loaded up to Luna
+        repository.save(Arrays.asList(rex, luna), false);
+
+        assertEquals(Arrays.asList(rex, luna, bella), cache.read());
+    }
+
+    private void load() {
+        repository.load(new PetRepository.Callback() {
+            @Override
+            public void onPets(List<Pet> pets, boolean cached) {
+                delivered.add(pets);
+                fromCache.add(cached);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                fail(e.getMessage());
+            }
+        });
+    }
+
+    private static Pet pet(String id, String name, long updatedAt) {
+        return Pet.builder().id(id).name(name).type("dog").updatedAt(updatedAt).build();
+    }
+
+    private static class FakeRemote implements PetRepository.RemoteSource {
+        List<Pet> changes = Collections.emptyList();
+        long lastUpdatedAfter = -1;
+
+        @Override
+        public List<Pet> fetchUpdatedSince(long updatedAfter, int limit) {
+            lastUpdatedAfter = updatedAfter;
+            return changes;
+        }
+    }
+}
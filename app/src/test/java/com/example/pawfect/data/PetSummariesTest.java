@@ -0,0 +1,74 @@
+package com.example.pawfect.data;
+
+import com.example.pawfect.model.Owner;
+import com.example.pawfect.model.Pet;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PetSummariesTest {
+
+    @Test
+    public void keepsCardFieldsAndFirstPhotoOnly() {
+        Pet pet = Pet.builder()
+                .id("1")
+                .name("Rex")
+                .description("Good boy")
+                .type("Dog")
+                .ageMonths(36)
+                .race("Labrador")
+                .owner(new Owner("Sam", "sam@example.com", "555"))
+                .photoUrls(Arrays.asList("https://ik.imagekit.io/a.jpg", "https://ik.imagekit.io/b.jpg"))
+                .updatedAt(42L)
+                .build();
+
+        Map<String, Object> summary = PetSummaries.of(pet);
+
+        assertEquals("Rex", summary.get("name"));
+        assertEquals("Good boy", summary.get("description"));
+        assertEquals("dog", summary.get("typeKey"));
+        assertEquals(42L, summary.get("updatedAt"));
+        assertEquals(Collections.singletonList("https://ik.imagekit.io/a.jpg"), summary.get("photoUrls"));
+        assertEquals(Owner.idOf(pet.getOwner()), summary.get("ownerId"));
+        assertFalse(summary.containsKey("owner"));
+        assertFalse(summary.containsKey("id"));
+    }
+
+    @Test
+    public void handlesMissingOwnerAndPhotos() {
+        Map<String, Object> summary = PetSummaries.of(Pet.builder().id("2").name("Milo").type("cat").build());
+
+        assertTrue(summary.containsKey("ownerId"));
+        assertNull(summary.get("ownerId"));
+        assertNull(summary.get("description"));
+        assertEquals(Collections.emptyList(), summary.get("photoUrls"));
+    }
+
+    @Test
+    public void cutsLongDescriptionsAtAWordBreak() {
+        StringBuilder description = new StringBuilder();
+        while (description.length() < 500) {
+            description.append("playful ");
+        }
+
+        String excerpt = PetSummaries.excerpt(description.toString());
+
+        assertTrue(excerpt.length() <= PetSummaries.DESCRIPTION_EXCERPT_LENGTH);
+        assertTrue(excerpt.endsWith("playful\u2026"));
+    }
+
+    @Test
+    public void cutsDescriptionsWithoutSpaces() {
+        char[] letters = new char[300];
+        Arrays.fill(letters, 'a');
+
+        String excerpt = PetSummaries.excerpt(new String(letters));
+
+        assertEquals(PetSummaries.DESCRIPTION_EXCERPT_LENGTH, excerpt.length());
+    }
+}
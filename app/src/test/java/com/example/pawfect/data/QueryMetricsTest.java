@@ -0,0 +1,56 @@
+package com.example.pawfect.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QueryMetricsTest {
+
+    @Before
+    public void setUp() {
+        QueryMetrics.reset();
+    }
+
+    @Test
+    public void countsCacheAndServerResultsSeparately() {
+        QueryMetrics.record("pets page", true, 20, 4);
+        QueryMetrics.record("pets page", true, 20, 6);
+        QueryMetrics.record("pets page", false, 3, 300);
+
+        QueryMetrics.Stats stats = QueryMetrics.get("pets page");
+        assertEquals(2, stats.cacheResults);
+        assertEquals(40, stats.cacheDocuments);
+        assertEquals(5, stats.averageCacheLatencyMs());
+        assertEquals(1, stats.serverResults);
+        assertEquals(3, stats.serverDocuments);
+        assertEquals(300, stats.averageServerLatencyMs());
+    }
+
+    @Test
+    public void keepsLabelsApart() {
+        QueryMetrics.record("pets page", false, 20, 100);
+        QueryMetrics.record("pets updated since", false, 2, 80);
+
+        assertEquals(20, QueryMetrics.get("pets page").serverDocuments);
+        assertEquals(2, QueryMetrics.get("pets updated since").serverDocuments);
+        assertTrue(QueryMetrics.summary().contains("pets updated since: cache 0 results"));
+    }
+
+    @Test
+    public void unknownLabelIsAllZero() {
+        QueryMetrics.Stats stats = QueryMetrics.get("nothing");
+        assertEquals(0, stats.cacheResults + stats.serverResults);
+        assertEquals(0, stats.averageServerLatencyMs());
+        assertEquals("no queries", QueryMetrics.summary());
+    }
+
+    @Test
+    public void getReturnsASnapshot() {
+        QueryMetrics.record("pets page", true, 1, 1);
+        QueryMetrics.Stats stats = QueryMetrics.get("pets page");
+        QueryMetrics.record("pets page", true, 1, 1);
+
+        assertEquals(1, stats.cacheResults);
+    }
+}
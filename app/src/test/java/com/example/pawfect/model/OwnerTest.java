@@ -0,0 +1,45 @@
+package com.example.pawfect.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OwnerTest {
+
+    @Test
+    public void idIsStableAcrossCaseAndWhitespaceOfTheEmail() {
+        String id = Owner.idOf(new Owner("Ann", "ann@example.com", "0600"));
+
+        assertEquals(32, id.length());
+        assertEquals(id, Owner.idOf(new Owner("Ann B.", " Ann@Example.COM ", "0700")));
+        assertNotEquals(id, Owner.idOf(new Owner("Ann", "ann@example.org", "0600")));
+    }
+
+    @Test
+    public void withoutEmail_idComesFromNameAndPhone() {
+        String id = Owner.idOf(new Owner("Sam", "", "06 00 00"));
+
+        assertNotNull(id);
+        assertEquals(id, Owner.idOf(new Owner("sam", null, "060000")));
+        assertNotEquals(id, Owner.idOf(new Owner("Sam", null, "0700")));
+    }
+
+    @Test
+    public void blankOwner_hasNoId() {
+        assertNull(Owner.idOf(null));
+        assertNull(Owner.idOf(new Owner(" ", "", null)));
+    }
+
+    @Test
+    public void petKeepsOwnerIdInStepWithItsOwner() {
+        Pet pet = Pet.builder().id("p1").name("Rex").owner(new Owner("Ann", "ann@example.com", null)).build();
+        assertEquals(Owner.idOf(pet.getOwner()), pet.getOwnerId());
+
+        pet = pet.toBuilder().owner(new Owner("Bob", "bob@example.com", null)).build();
+        assertEquals(Owner.idOf(new Owner(null, "bob@example.com", null)), pet.getOwnerId());
+
+        // An unresolved owner keeps the reference
+        pet = pet.toBuilder().owner(null).build();
+        assertNotNull(pet.getOwnerId());
+    }
+}
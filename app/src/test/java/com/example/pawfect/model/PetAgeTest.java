@@ -0,0 +1,42 @@
+package com.example.pawfect.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PetAgeTest {
+
+    @Test
+    public void bareNumberIsYears() {
+        assertEquals(36, PetAge.parse("3"));
+        assertEquals(30, PetAge.parse("2.5"));
+        assertEquals(18, PetAge.parse("1,5"));
+    }
+
+    @Test
+    public void readsUnits() {
+        assertEquals(24, PetAge.parse("2 years"));
+        assertEquals(8, PetAge.parse("8 Months"));
+        assertEquals(18, PetAge.parse("1 year 6 months"));
+        assertEquals(2, PetAge.parse("8 wks"));
+        assertEquals(12, PetAge.parse("1yr"));
+    }
+
+    @Test
+    public void unknownAges() {
+        assertEquals(PetAge.UNKNOWN, PetAge.parse(null));
+        assertEquals(PetAge.UNKNOWN, PetAge.parse(" "));
+        assertEquals(PetAge.UNKNOWN, PetAge.parse("old"));
+        assertEquals(PetAge.UNKNOWN, PetAge.parse("3 ans"));
+    }
+
+    @Test
+    public void formatsForDisplay() {
+        assertNull(PetAge.format(PetAge.UNKNOWN));
+        assertEquals("1 month", PetAge.format(1));
+        assertEquals("11 months", PetAge.format(11));
+        assertEquals("1 year", PetAge.format(12));
+        assertEquals("3 years 6 months", PetAge.format(42));
+        assertEquals(42, PetAge.parse(PetAge.format(42)));
+    }
+}
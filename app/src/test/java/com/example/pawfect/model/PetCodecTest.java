@@ -0,0 +1,62 @@
+package com.example.pawfect.model;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * PetCodec round trips and size against the Serializable path Intents used to take.
+ * Timing is measured by the androidx.benchmark PetCodecBenchmark, not here.
+ */
+public class PetCodecTest {
+
+    private static Pet samplePet() {
+        return Pet.builder()
+                .id("a1B2c3D4e5F6g7H8i9J0")
+                .name("Biscuit")
+                .description("Friendly two year old who loves long walks, belly rubs and other dogs.")
+                .type("Dog")
+                .ageMonths(24)
+                .race("Golden Retriever")
+                .owner(new Owner("Alex Martin", "alex.martin@example.com", "+33 6 12 34 56 78"))
+                .photoUrls(Arrays.asList(
+                        "https://ik.imagekit.io/plmaosmzg/pawfect_match/pets/pet_1700000000001.jpg",
+                        "https://ik.imagekit.io/plmaosmzg/pawfect_match/pets/pet_1700000000002.jpg",
+                        "https://ik.imagekit.io/plmaosmzg/pawfect_match/pets/pet_1700000000003.jpg"))
+                .updatedAt(1_700_000_000_000L)
+                .build();
+    }
+
+    @Test
+    public void codecRoundTripsPet() throws Exception {
+        Pet pet = samplePet();
+        assertEquals(pet, PetCodec.decode(PetCodec.encode(pet)));
+        assertEquals(pet, deserialize(serialize(pet)));
+    }
+
+    @Test
+    public void codecIsSmallerThanSerializable() throws Exception {
+        Pet pet = samplePet();
+        assertTrue(PetCodec.encode(pet).length < serialize(pet).length);
+    }
+
+    private static byte[] serialize(Pet pet) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(pet);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Pet deserialize(byte[] bytes) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Pet) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.pawfect.model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PetDiffTest {
+
+    private static Pet pet() {
+        return Pet.builder()
+                .id("p1")
+                .name("Rex")
+                .description("Friendly")
+                .type("Dog")
+                .ageMonths(36)
+                .race("Beagle")
+                .owner(new Owner("Ann", "ann@example.com", "0600"))
+                .photoUrls(Arrays.asList("https://ik.imagekit.io/x/a.webp"))
+                .updatedAt(1000)
+                .build();
+    }
+
+    @Test
+    public void unchangedPet_hasNoChanges() {
+        Pet edited = pet().toBuilder().updatedAt(2000).build();
+        assertTrue(PetDiff.changedFields(pet(), edited).isEmpty());
+    }
+
+    @Test
+    public void changedScalar_isTheOnlyField() {
+        Pet edited = pet().toBuilder().name("Rexy").build();
+
+        assertEquals(Collections.singletonMap("name", "Rexy"), PetDiff.changedFields(pet(), edited));
+    }
+
+    @Test
+    public void changedType_includesTypeKey() {
+        Pet edited = pet().toBuilder().type("Cat").build();
+
+        Map<String, Object> changes = PetDiff.changedFields(pet(), edited);
+        assertEquals("Cat", changes.get("type"));
+        assertEquals("cat", changes.get("typeKey"));
+        assertEquals(2, changes.size());
+    }
+
+    @Test
+    public void changedAge_includesAgeText() {
+        Pet edited = pet().toBuilder().ageMonths(42).build();
+
+        Map<String, Object> changes = PetDiff.changedFields(pet(), edited);
+        assertEquals(42, changes.get("ageMonths"));
+        assertEquals("3 years 6 months", changes.get("age"));
+        assertEquals(2, changes.size());
+    }
+
+    @Test
+    public void changedOwnerPhone_onlyChangesTheOwner() {
+        Pet edited = pet().toBuilder().owner(new Owner("Ann", "ann@example.com", "0700")).build();
+
+        assertTrue(PetDiff.changedFields(pet(), edited).isEmpty());
+        assertTrue(PetDiff.ownerChanged(pet(), edited));
+    }
+
+    @Test
+    public void changedOwnerEmail_pointsAtAnotherOwner() {
+        Pet edited = pet().toBuilder().owner(new Owner("Ann", "ann@example.org", "0600")).build();
+
+        assertEquals(Collections.singletonMap("ownerId", Owner.idOf(edited.getOwner())),
+                PetDiff.changedFields(pet(), edited));
+        assertTrue(PetDiff.ownerChanged(pet(), edited));
+    }
+
+    @Test
+    public void unchangedOwner_isNotWritten() {
+        assertFalse(PetDiff.ownerChanged(pet(), pet()));
+    }
+
+    @Test
+    public void changedPhotos_sendsWholeList() {
+        Pet edited = pet().toBuilder()
+                .photoUrls(Arrays.asList("https://ik.imagekit.io/x/a.webp", "https://ik.imagekit.io/x/b.webp"))
+                .build();
+
+        assertEquals(edited.getPhotoUrls(), PetDiff.changedFields(pet(), edited).get("photoUrls"));
+    }
+}
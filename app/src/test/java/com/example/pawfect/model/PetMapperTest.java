@@ -0,0 +1,103 @@
+package com.example.pawfect.model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PetMapperTest {
+
+    private static Pet pet() {
+        return Pet.builder()
+                .id("p1")
+                .name("Rex")
+                .description("Friendly")
+                .type("Dog")
+                .ageMonths(36)
+                .race("Beagle")
+                .owner(new Owner("Ann", "ann@example.com", "0600"))
+                .photoUrls(Arrays.asList("https://ik.imagekit.io/x/a.webp"))
+                .updatedAt(1000)
+                .build();
+    }
+
+    @Test
+    public void roundTripsAPetWithoutItsOwner() {
+        Pet pet = pet();
+
+        Pet read = PetMapper.fromMap("p1", PetMapper.toMap(pet));
+
+        // The owner is stored in the owners collection, only its id travels with the pet
+        assertNull(read.getOwner());
+        assertEquals(pet, read.toBuilder().owner(pet.getOwner()).build());
+    }
+
+    @Test
+    public void writesFirestoreFriendlyValues() {
+        Map<String, Object> data = PetMapper.toMap(pet());
+
+        assertFalse(data.containsKey("id"));
+        assertFalse(data.containsKey("owner"));
+        assertEquals(Owner.idOf(pet().getOwner()), data.get("ownerId"));
+        assertEquals(1000L, data.get("updatedAt"));
+        assertEquals(36, data.get("ageMonths"));
+        assertEquals("3 years", data.get("age"));
+    }
+
+    @Test
+    public void parsesAgeTextOfOlderDocuments() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("type", "Dog");
+        data.put("age", "1 year 6 months");
+
+        Pet pet = PetMapper.fromMap("p1", data);
+
+        assertEquals(18, pet.getAgeMonths());
+        assertEquals(PetType.DOG, pet.getType());
+    }
+
+    @Test
+    public void readsEmbeddedOwnerOfOlderDocuments() {
+        Map<String, Object> owner = new HashMap<>();
+        owner.put("name", "Ann");
+        owner.put("email", "ann@example.com");
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "Rex");
+        data.put("owner", owner);
+
+        Pet pet = PetMapper.fromMap("p1", data);
+
+        assertEquals("ann@example.com", pet.getOwner().getEmail());
+        assertEquals(Owner.idOf(pet.getOwner()), pet.getOwnerId());
+    }
+
+    @Test
+    public void toleratesMissingAndMistypedFields() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("age", 4L);
+        data.put("photoUrls", Arrays.asList("https://ik.imagekit.io/x/a.webp", null, 7));
+        data.put("updatedAt", "yesterday");
+
+        Pet pet = PetMapper.fromMap("p1", data);
+
+        assertEquals("p1", pet.getId());
+        assertNull(pet.getName());
+        assertEquals(48, pet.getAgeMonths());
+        assertEquals(Arrays.asList("https://ik.imagekit.io/x/a.webp", "7"), pet.getPhotoUrls());
+        assertEquals(0L, pet.getUpdatedAt());
+    }
+
+    @Test
+    public void missingDocumentIsNull() {
+        assertNull(PetMapper.fromMap("p1", null));
+    }
+
+    @Test
+    public void roundTripsAnOwner() {
+        Owner owner = new Owner("Ann", "ann@example.com", null);
+        assertEquals(owner, PetMapper.ownerFromMap(PetMapper.ownerToMap(owner)));
+    }
+}
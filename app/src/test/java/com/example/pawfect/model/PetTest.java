@@ -0,0 +1,60 @@
+package com.example.pawfect.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PetTest {
+
+    @Test
+    public void typeIsDerivedFromTheLabel() {
+        assertEquals(PetType.DOG, Pet.builder().type(" Dog ").build().getType());
+        assertEquals(PetType.CAT, Pet.builder().type("CAT").build().getType());
+        assertEquals(PetType.OTHER, Pet.builder().type("Hamster").build().getType());
+        assertNull(Pet.builder().type("").build().getType());
+        assertEquals("hamster", Pet.builder().type("Hamster").build().getTypeKey());
+    }
+
+    @Test
+    public void breedAndTypeLabelAreShared() {
+        Pet rex = Pet.builder().type(new String("Dog")).race(new String("Labrador")).build();
+        Pet luna = Pet.builder().type(new String("Dog")).race(new String("Labrador")).build();
+
+        assertSame(rex.getRace(), luna.getRace());
+        assertSame(rex.getTypeLabel(), luna.getTypeLabel());
+    }
+
+    @Test
+    public void photoUrlsAreCopiedAndUnmodifiable() {
+        List<String> urls = new ArrayList<>();
+        urls.add("https://ik.imagekit.io/x/a.webp");
+        Pet pet = Pet.builder().photoUrls(urls).build();
+        urls.add("https://ik.imagekit.io/x/b.webp");
+
+        assertEquals(1, pet.getPhotoUrls().size());
+        try {
+            pet.getPhotoUrls().clear();
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void toBuilderCopiesEveryField() {
+        Pet pet = Pet.builder()
+                .id("p1")
+                .name("Rex")
+                .type("Dog")
+                .ageMonths(18)
+                .race("Beagle")
+                .owner(new Owner("Ann", "ann@example.com", null))
+                .updatedAt(1000)
+                .build();
+
+        assertEquals(pet, pet.toBuilder().build());
+        assertNotEquals(pet, pet.toBuilder().ageMonths(19).build());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.pawfect.search;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class PetFilterPipelineTest {
+
+    // Stands in for the main thread: the test drains it on its own thread
+    private final LinkedBlockingQueue<Runnable> mainQueue = new LinkedBlockingQueue<>();
+    private final List<List<Pet>> published = new ArrayList<>();
+    private PetFilterPipeline pipeline;
+
+    private final Pet rex = Pet.builder().id("1").name("Rex").type("dog").ageMonths(24).race("Labrador").build();
+    private final Pet milo = Pet.builder().id("2").name("Milo").type("cat").ageMonths(12).race("Siamese").build();
+
+    @Before
+    public void setUp() {
+        pipeline = new PetFilterPipeline(mainQueue::add, 20, published::add);
+    }
+
+    @After
+    public void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    public void onlyTheLatestQueryIsPublished() throws Exception {
+        pipeline.setPets(Arrays.asList(rex, milo));
+        pipeline.setQuery("r");
+        pipeline.setQuery("re");
+        pipeline.setQuery("mi");
+
+        drainMainQueue(300);
+
+        assertFalse(published.isEmpty());
+        for (List<Pet> result : published) {
+            assertEquals(Arrays.asList(milo), result);
+        }
+    }
+
+    @Test
+    public void typeChangeRefilters() throws Exception {
+        pipeline.setPets(Arrays.asList(rex, milo));
+        drainMainQueue(100);
+        pipeline.setType(PetType.DOG);
+        drainMainQueue(100);
+
+        assertEquals(Arrays.asList(rex), published.get(published.size() - 1));
+    }
+
+    @Test
+    public void searchFindsPetsOfPagesLoadedAfterTheQuery() throws Exception {
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            pets.add(Pet.builder().id("a" + i).name("Pet " + i).type("dog").build());
+        }
+        pipeline.setPets(new ArrayList<>(pets));
+        pipeline.setQuery("zed");
+        drainMainQueue(100);
+        assertTrue(published.get(published.size() - 1).isEmpty());
+
+        // The pager keeps loading pages while a search is active
+        Pet zed = Pet.builder().id("b0").name("Zed").type("cat").build();
+        pets.add(zed);
+        pipeline.setPets(new ArrayList<>(pets));
+        drainMainQueue(100);
+
+        assertEquals(Arrays.asList(zed), published.get(published.size() - 1));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void resultsAreImmutable() throws Exception {
+        pipeline.setPets(Arrays.asList(rex, milo));
+        drainMainQueue(100);
+        published.get(0).clear();
+    }
+
+    private void drainMainQueue(long millis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + millis;
+        long remaining;
+        while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+            Runnable task = mainQueue.poll(remaining, TimeUnit.MILLISECONDS);
+            if (task != null) {
+                task.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.pawfect.search;
+
+import com.example.pawfect.model.Pet;
+import com.example.pawfect.model.PetType;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PetSearchIndexTest {
+
+    private PetSearchIndex index;
+    private Pet rex, milo, luna;
+
+    @Before
+    public void setUp() {
+        rex = pet("1", "Rex", "Loves long walks", "Dog", "Labrador");
+        milo = pet("2", "Milo", "Sleeps all day", "cat", "Siamese");
+        luna = pet("3", "Luna", "Playful labrador puppy", "DOG", "Mixed");
+        index = new PetSearchIndex();
+        index.sync(Arrays.asList(rex, milo, luna));
+    }
+
+    @Test
+    public void emptyQuery_returnsEveryPetOfType() {
+        assertEquals(Arrays.asList(rex, milo, luna), search(null, null));
+        assertEquals(Arrays.asList(rex, luna), search("", PetType.DOG));
+        assertEquals(Arrays.asList(milo), search(null, PetType.CAT));
+    }
+
+    @Test
+    public void prefixMatchesAcrossFields() {
+        assertEquals(Arrays.asList(rex, luna), search("lab", null));
+        assertEquals(Arrays.asList(luna), search("lab pup", null));
+        assertEquals(Arrays.asList(milo), search("SIAM", PetType.CAT));
+        assertTrue(search("lab", PetType.CAT).isEmpty());
+    }
+
+    @Test
+    public void sync_reindexesChangedAndDropsRemovedPets() {
+        Pet renamed = pet("1", "Buddy", "Loves long walks", "dog", "Beagle");
+        index.sync(Arrays.asList(renamed, luna));
+
+        assertEquals(2, index.size());
+        assertTrue(search("rex", null).isEmpty());
+        assertTrue(search("sleeps", null).isEmpty());
+        assertEquals(Arrays.asList(renamed), search("beag", PetType.DOG));
+    }
+
+    @Test
+    public void resultsFollowListOrderWhenSlotsAreReused() {
+        index.sync(Arrays.asList(milo, luna));
+        Pet buddy = pet("0", "Buddy", null, "dog", "Beagle");
+        // Takes the slot rex freed, ahead of milo's and luna's
+        index.sync(Arrays.asList(milo, luna, buddy));
+
+        assertEquals(Arrays.asList(milo, luna, buddy), search(null, null));
+        assertEquals(Arrays.asList(luna, buddy), search(null, PetType.DOG));
+    }
+
+    @Test
+    public void unknownTypesAreOther() {
+        Pet hammy = pet("4", "Hammy", null, "Hamster", null);
+        index.put(hammy);
+
+        assertEquals(Arrays.asList(hammy), search(null, PetType.OTHER));
+        assertTrue(search(null, PetType.BIRD).isEmpty());
+    }
+
+    private List<Pet> search(String query, PetType type) {
+        List<Pet> out = new ArrayList<>();
+        index.search(query, type, out);
+        return out;
+    }
+
+    private static Pet pet(String id, String name, String description, String type, String race) {
+        return Pet.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .type(type)
+                .ageMonths(24)
+                .race(race)
+                .photoUrls(new ArrayList<>())
+                .build();
+    }
+}
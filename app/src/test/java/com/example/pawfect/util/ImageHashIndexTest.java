@@ -0,0 +1,85 @@
+package com.example.pawfect.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class ImageHashIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sha256_matchesKnownDigest() throws IOException {
+        String hash = ImageHashIndex.sha256(new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", hash);
+    }
+
+    @Test
+    public void sha256_readsPastBufferSize() throws IOException {
+        byte[] large = new byte[200 * 1024];
+        large[large.length - 1] = 1;
+        assertNotEquals(ImageHashIndex.sha256(new ByteArrayInputStream(large)),
+                ImageHashIndex.sha256(new ByteArrayInputStream(new byte[large.length])));
+    }
+
+    @Test
+    public void put_persistsAcrossInstances() throws IOException {
+        File file = new File(folder.getRoot(), "image_hashes");
+        new ImageHashIndex(file).put("pet_abc.webp", "https://ik.imagekit.io/x/pet_abc.webp");
+
+        ImageHashIndex reopened = new ImageHashIndex(file);
+        assertEquals("https://ik.imagekit.io/x/pet_abc.webp", reopened.lookup("pet_abc.webp"));
+        assertNull(reopened.lookup("pet_other.webp"));
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsed() throws IOException {
+        File file = new File(folder.getRoot(), "image_hashes");
+        ImageHashIndex index = new ImageHashIndex(file, 2);
+        index.put("a", "url-a");
+        index.put("b", "url-b");
+        index.lookup("a");
+        index.put("c", "url-c");
+
+        assertEquals(2, index.size());
+        assertNull(index.lookup("b"));
+
+        // Access order survives a reload
+        ImageHashIndex reopened = new ImageHashIndex(file, 2);
+        reopened.put("d", "url-d");
+        assertNull(reopened.lookup("a"));
+        assertEquals("url-c", reopened.lookup("c"));
+    }
+
+    @Test
+    public void remove_forgetsEntry() throws IOException {
+        File file = new File(folder.getRoot(), "image_hashes");
+        ImageHashIndex index = new ImageHashIndex(file);
+        index.put("a", "url-a");
+        index.remove("a");
+
+        assertNull(new ImageHashIndex(file).lookup("a"));
+    }
+
+    @Test
+    public void corruptFile_behavesAsEmpty() throws IOException {
+        File file = new File(folder.getRoot(), "image_hashes");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] {1, 2, 3});
+        }
+
+        ImageHashIndex index = new ImageHashIndex(file);
+        assertEquals(0, index.size());
+        index.put("a", "url-a");
+        assertEquals("url-a", new ImageHashIndex(file).lookup("a"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.pawfect.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ImageKitUrlTest {
+
+    private static final String URL = "https://ik.imagekit.io/plmaosmzg/pawfect_match/pets/pet_1.jpg";
+
+    @Test
+    public void sized_addsTransformation() {
+        assertEquals(URL + "?tr=w-160,h-160,q-75,f-webp", ImageKitUrl.sized(URL, 160, 160));
+    }
+
+    @Test
+    public void sized_roundsUpToSizeStep() {
+        assertEquals(URL + "?tr=w-224,h-96,q-75,f-webp", ImageKitUrl.sized(URL, 210, 65));
+    }
+
+    @Test
+    public void build_appendsToExistingQuery() {
+        String url = URL + "?updatedAt=123";
+        assertEquals(url + "&tr=w-64,q-60,f-auto",
+                ImageKitUrl.of(url).width(64).quality(60).format("auto").build());
+    }
+
+    @Test
+    public void build_leavesOtherHostsAndTransformedUrlsAlone() {
+        String other = "https://example.com/cat.jpg";
+        assertEquals(other, ImageKitUrl.sized(other, 100, 100));
+
+        String transformed = URL + "?tr=w-100";
+        assertEquals(transformed, ImageKitUrl.sized(transformed, 200, 200));
+        assertNull(ImageKitUrl.sized(null, 100, 100));
+    }
+
+    @Test
+    public void build_withNothingToChange_returnsUrl() {
+        assertEquals(URL, ImageKitUrl.of(URL).quality(0).format(null).build());
+    }
+}
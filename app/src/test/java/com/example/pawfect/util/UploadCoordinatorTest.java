@@ -0,0 +1,159 @@
+package com.example.pawfect.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class UploadCoordinatorTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void uploadAll_keepsTaskOrder() throws IOException {
+        // Later tasks finish first
+        List<FakeTask> tasks = Arrays.asList(new FakeTask("a", 60), new FakeTask("b", 30), new FakeTask("c", 0));
+
+        List<String> urls = new UploadCoordinator(executor, 3).uploadAll(tasks, null);
+
+        assertEquals(Arrays.asList("a", "b", "c"), urls);
+    }
+
+    @Test
+    public void uploadAll_respectsConcurrencyCap() throws IOException {
+        List<FakeTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(new FakeTask("url" + i, 20));
+        }
+
+        List<String> urls = new UploadCoordinator(executor, 2).uploadAll(tasks, null);
+
+        assertEquals(8, urls.size());
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void uploadAll_runsTasksInParallel() throws IOException {
+        List<FakeTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(new FakeTask("url" + i, 200));
+        }
+
+        long start = System.nanoTime();
+        new UploadCoordinator(executor, 5).uploadAll(tasks, null);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue("took " + elapsedMs + " ms", elapsedMs < 800);
+    }
+
+    @Test
+    public void uploadAll_reportsProgress() throws IOException {
+        List<FakeTask> tasks = Arrays.asList(new FakeTask("a", 0), new FakeTask("b", 0));
+        List<Integer> completed = new ArrayList<>();
+
+        new UploadCoordinator(executor, 1).uploadAll(tasks, (done, total) -> {
+            assertEquals(2, total);
+            completed.add(done);
+        });
+
+        assertEquals(Arrays.asList(1, 2), completed);
+    }
+
+    @Test
+    public void failure_cancelsRemainingTasks() {
+        FakeTask slow = new FakeTask("slow", 5_000);
+        FakeTask failing = new FakeTask(null, 20);
+        FakeTask queued = new FakeTask("queued", 0);
+
+        try {
+            new UploadCoordinator(executor, 2).uploadAll(Arrays.asList(slow, failing, queued), null);
+            fail("Expected the failure to propagate");
+        } catch (IOException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        assertTrue(slow.canceled);
+        assertFalse(queued.executed);
+    }
+
+    @Test
+    public void cancel_stopsBatchInFlight() throws Exception {
+        FakeTask slow = new FakeTask("slow", 5_000);
+        UploadCoordinator coordinator = new UploadCoordinator(executor, 2);
+        CountDownLatch started = slow.started;
+
+        executor.execute(() -> {
+            try {
+                started.await();
+            } catch (InterruptedException ignored) {
+            }
+            coordinator.cancel();
+        });
+
+        try {
+            coordinator.uploadAll(Arrays.asList(slow, new FakeTask("other", 5_000)), null);
+            fail("Expected the batch to be canceled");
+        } catch (InterruptedIOException e) {
+            assertTrue(coordinator.isCanceled());
+        }
+        assertTrue(slow.canceled);
+    }
+
+    /**
+     * Sleeps for delayMs (until canceled) and returns result, or fails when result is null
+     */
+    private class FakeTask implements UploadCoordinator.Task {
+        final String result;
+        final long delayMs;
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch cancelLatch = new CountDownLatch(1);
+        volatile boolean executed;
+        volatile boolean canceled;
+
+        FakeTask(String result, long delayMs) {
+            this.result = result;
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public String execute() throws IOException {
+            executed = true;
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            try {
+                if (cancelLatch.await(delayMs, TimeUnit.MILLISECONDS)) {
+                    throw new InterruptedIOException("canceled");
+                }
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            } finally {
+                running.decrementAndGet();
+            }
+            if (result == null) throw new IOException("boom");
+            return result;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            cancelLatch.countDown();
+        }
+    }
+}
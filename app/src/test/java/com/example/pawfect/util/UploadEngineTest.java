@@ -0,0 +1,143 @@
+package com.example.pawfect.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.*;
+
+public class UploadEngineTest {
+
+    private MockWebServer server;
+    private UploadEngine engine;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+
+        UploadEngine.RetryPolicy policy = new UploadEngine.RetryPolicy();
+        policy.maxAttempts = 3;
+        policy.initialBackoffMs = 10;
+        policy.jitter = 0;
+        engine = new UploadEngine(new OkHttpClient(), policy);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void retriesServerErrorsUntilSuccess() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody("{\"url\":\"https://ik.imagekit.io/x.webp\"}"));
+
+        String body = engine.newUpload(uploadRequest(), null).execute();
+
+        assertEquals("{\"url\":\"https://ik.imagekit.io/x.webp\"}", body);
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void retriesDroppedConnections() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        assertEquals("ok", engine.newUpload(uploadRequest(), null).execute());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void clientErrorsFailWithoutRetry() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(400).setBody("bad file"));
+
+        try {
+            engine.newUpload(uploadRequest(), null).execute();
+            fail("Expected HttpException");
+        } catch (UploadEngine.HttpException e) {
+            assertEquals(400, e.code);
+            assertEquals("bad file", e.body);
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(502));
+        }
+
+        try {
+            engine.newUpload(uploadRequest(), null).execute();
+            fail("Expected HttpException");
+        } catch (UploadEngine.HttpException e) {
+            assertEquals(502, e.code);
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void reportsProgressUpToContentLength() throws Exception {
+        server.enqueue(new MockResponse().setBody("ok"));
+        List<long[]> progress = new ArrayList<>();
+
+        Request request = uploadRequest();
+        long contentLength = request.body().contentLength();
+        engine.newUpload(request, (written, total) -> progress.add(new long[] {written, total})).execute();
+
+        assertFalse(progress.isEmpty());
+        long[] last = progress.get(progress.size() - 1);
+        assertEquals(contentLength, last[0]);
+        assertEquals(contentLength, last[1]);
+    }
+
+    @Test
+    public void cancelStopsRetrying() throws Exception {
+        UploadEngine.RetryPolicy slowPolicy = new UploadEngine.RetryPolicy();
+        slowPolicy.initialBackoffMs = 10_000;
+        slowPolicy.jitter = 0;
+        UploadEngine slowEngine = new UploadEngine(new OkHttpClient(), slowPolicy);
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        UploadEngine.Upload upload = slowEngine.newUpload(uploadRequest(), null);
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ignored) {
+            }
+            upload.cancel();
+        }).start();
+
+        long start = System.currentTimeMillis();
+        try {
+            upload.execute();
+            fail("Expected cancellation");
+        } catch (IOException expected) {
+            assertTrue(upload.isCanceled());
+        }
+        assertTrue(System.currentTimeMillis() - start < 5_000);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private Request uploadRequest() {
+        byte[] image = new byte[256 * 1024];
+        return new Request.Builder()
+                .url(server.url("/api/v1/files/upload"))
+                .post(RequestBody.create(image, MediaType.parse("image/webp")))
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.pawfect.work;
+
+import com.example.pawfect.model.Pet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PetSaveJobTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTripsAJobLargerThanWorkData() throws Exception {
+        char[] description = new char[20 * 1024];
+        Arrays.fill(description, 'a');
+        Pet base = Pet.builder().id("1").name("Rex").type("Dog").updatedAt(5).build();
+        Pet pet = base.toBuilder().description(new String(description)).build();
+        File file = new File(folder.getRoot(), "job");
+
+        new PetSaveJob(pet, base, new String[] {"content://media/1", "content://media/2"}).write(file);
+        PetSaveJob job = PetSaveJob.read(file);
+
+        assertEquals(pet, job.pet);
+        assertEquals(base, job.base);
+        assertArrayEquals(new String[] {"content://media/1", "content://media/2"}, job.photoUris);
+    }
+
+    @Test
+    public void roundTripsANewPetWithoutPhotos() throws Exception {
+        Pet pet = Pet.builder().id("2").name("Milo").build();
+        File file = new File(folder.getRoot(), "job");
+
+        new PetSaveJob(pet, null, new String[0]).write(file);
+        PetSaveJob job = PetSaveJob.read(file);
+
+        assertEquals(pet, job.pet);
+        assertNull(job.base);
+        assertEquals(0, job.photoUris.length);
+    }
+}
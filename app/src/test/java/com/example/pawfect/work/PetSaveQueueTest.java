@@ -0,0 +1,33 @@
+package com.example.pawfect.work;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class PetSaveQueueTest {
+
+    private static final byte[] PET = "pet".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void formHash_isStableForSameJob() {
+        String[] uris = {"content://media/1", "content://media/2"};
+        assertEquals(PetSaveQueue.formHash(PET, uris), PetSaveQueue.formHash(PET, uris.clone()));
+        assertEquals(64, PetSaveQueue.formHash(PET, uris).length());
+    }
+
+    @Test
+    public void formHash_differsForDifferentPhotos() {
+        String a = PetSaveQueue.formHash(PET, new String[] {"content://media/1"});
+        String b = PetSaveQueue.formHash(PET, new String[] {"content://media/2"});
+        assertNotEquals(a, b);
+    }
+
+    @Test
+    public void formHash_separatesUriBoundaries() {
+        String a = PetSaveQueue.formHash(PET, new String[] {"ab", "c"});
+        String b = PetSaveQueue.formHash(PET, new String[] {"a", "bc"});
+        assertNotEquals(a, b);
+    }
+}